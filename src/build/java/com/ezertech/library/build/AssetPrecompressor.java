@@ -0,0 +1,98 @@
+package com.ezertech.library.build;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build-time asset stage, run by Maven on {@code target/classes/static} right after compilation, in
+ * every build: writes a {@code .gz} and a {@code .br} variant next to every text asset at maximum compression,
+ * for {@code EncodedResourceResolver} to serve according to {@code Accept-Encoding}.
+ * <p>
+ * Variants newer than their source are kept, and variants that would not be smaller are not written.
+ * A missing asset directory, or one without text assets, fails the build instead of shipping a jar
+ * without variants.
+ */
+public final class AssetPrecompressor {
+
+    private static final Set<String> EXTENSIONS = Set.of("css", "js", "svg", "html", "json", "txt");
+
+    private AssetPrecompressor() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path root = Path.of(args.length > 0 ? args[0] : "target/classes/static");
+        if (!Files.isDirectory(root)) {
+            throw new IllegalStateException("No asset directory at " + root);
+        }
+        Brotli4jLoader.ensureAvailability();
+
+        List<Path> assets;
+        try (Stream<Path> files = Files.walk(root)) {
+            assets = files.filter(Files::isRegularFile).filter(AssetPrecompressor::isCompressible).toList();
+        }
+        if (assets.isEmpty()) {
+            throw new IllegalStateException("No compressible assets under " + root);
+        }
+        for (Path asset : assets) {
+            byte[] content = Files.readAllBytes(asset);
+            long gz = write(asset, ".gz", content, () -> gzip(content));
+            long br = write(asset, ".br", content, () -> Encoder.compress(content, new Encoder.Parameters().setQuality(11)));
+            System.out.printf("%s: %d bytes, gzip %s, brotli %s%n",
+                    root.relativize(asset), content.length, describe(gz), describe(br));
+        }
+    }
+
+    private static boolean isCompressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private interface Compression {
+        byte[] apply() throws IOException;
+    }
+
+    /** Size of the variant, -1 when it is not worth keeping. */
+    private static long write(Path asset, String extension, byte[] content, Compression compression)
+            throws IOException {
+        Path variant = asset.resolveSibling(asset.getFileName() + extension);
+        if (Files.exists(variant)
+                && Files.getLastModifiedTime(variant).compareTo(Files.getLastModifiedTime(asset)) >= 0) {
+            return Files.size(variant);
+        }
+        byte[] compressed = compression.apply();
+        if (compressed.length >= content.length) {
+            Files.deleteIfExists(variant);
+            return -1;
+        }
+        Files.write(variant, compressed);
+        return compressed.length;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    private static String describe(long size) {
+        return size < 0 ? "skipped" : size + " bytes";
+    }
+}
@@ -0,0 +1,138 @@
+package com.ezertech.library.benchmark;
+
+import com.ezertech.library.LibraryApplication;
+import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.exception.BookNotAvailableException;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.entity.Loan;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.service.ITLoanService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@value #DESKS} desks checking out the same {@value #BOOKS} copies in the same order, the worst case
+ * for contention. {@code conditional} is the single conditional UPDATE of {@code LoanServiceImpl.create};
+ * {@code locking} does the same work after a {@code SELECT ... FOR UPDATE} of the book.
+ * <p>
+ * Each iteration lends a fresh set of copies; the score is the time a desk takes to go through them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Threads(CheckoutBenchmark.DESKS)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    static final int DESKS = 8;
+    private static final int BOOKS = 200;
+
+    @Param({"conditional", "locking"})
+    private String strategy;
+
+    private ConfigurableApplicationContext context;
+    private ITLoanService loanService;
+    private BookRepository bookRepository;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private final AtomicLong isbnSequence = new AtomicLong();
+    private volatile List<Long> bookIds;
+
+    @State(Scope.Thread)
+    public static class Desk {
+
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+        final String email = "desk" + SEQUENCE.incrementAndGet() + "@test.com";
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryApplication.class)
+                .profiles("h2")
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:jmh-checkout;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                        "logging.level.root=WARN")
+                .run();
+        loanService = context.getBean(ITLoanService.class);
+        bookRepository = context.getBean(BookRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Libros nuevos en cada iteración: una ronda sobre libros ya prestados solo mediría rechazos
+    @Setup(Level.Iteration)
+    public void createBooks() {
+        List<Book> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(Book.builder()
+                    .title("Copy " + i)
+                    .author("Bench Author")
+                    .isbn(String.format("978%010d", isbnSequence.incrementAndGet()))
+                    .publicationYear(2020)
+                    .status(BookStatus.AVAILABLE)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        bookIds = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+    }
+
+    @Benchmark
+    public int checkoutRound(Desk desk) {
+        boolean locking = "locking".equals(strategy);
+        int granted = 0;
+        for (Long bookId : bookIds) {
+            try {
+                if (locking) {
+                    lockingCheckout(bookId, desk.email);
+                } else {
+                    loanService.create(new LoanRequest(bookId, "Desk", desk.email, LocalDate.now()));
+                }
+                granted++;
+            } catch (BookNotAvailableException ex) {
+                // Otro puesto se llevó el libro: es el caso habitual con contención
+            }
+        }
+        return granted;
+    }
+
+    private void lockingCheckout(Long bookId, String email) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Book book = entityManager.find(Book.class, bookId, LockModeType.PESSIMISTIC_WRITE);
+            if (book.getStatus() != BookStatus.AVAILABLE) {
+                throw new BookNotAvailableException("Book is not available for loan");
+            }
+            book.setStatus(BookStatus.BORROWED);
+            entityManager.persist(Loan.builder()
+                    .book(book)
+                    .borrowerName("Desk")
+                    .borrowerEmail(email)
+                    .searchText(Loan.searchTextOf("Desk", email, book.getTitle()))
+                    .loanDate(LocalDate.now())
+                    .dueDate(LocalDate.now().plusDays(14))
+                    .build());
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.ezertech.library.benchmark;
+
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.util.CsvWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of one export row, with and without fields that need quoting, against the
+ * {@code printf} formatting the export used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvRowBenchmark {
+
+    private final Book plain = new Book(1L, "Refactoring", "Martin Fowler", "9780201485677",
+            1999, BookStatus.AVAILABLE, LocalDateTime.now(), 0L);
+    private final Book quoted = new Book(2L, "Clean Code, 2nd \"Edition\"", "Martin, Robert C.", "9780132350884",
+            2008, BookStatus.BORROWED, LocalDateTime.now(), 0L);
+
+    private CsvWriter csv;
+    private Writer out;
+
+    @Setup
+    public void setUp() {
+        out = Writer.nullWriter();
+        csv = new CsvWriter(out);
+    }
+
+    @Benchmark
+    public void plainRow() throws IOException {
+        write(plain);
+    }
+
+    @Benchmark
+    public void quotedRow() throws IOException {
+        write(quoted);
+    }
+
+    @Benchmark
+    public void printfRow() throws IOException {
+        out.write(String.format("%s,%s,%s,%s%n",
+                plain.getTitle(), plain.getAuthor(), plain.getIsbn(), plain.getStatus()));
+    }
+
+    private void write(Book book) throws IOException {
+        csv.field(book.getTitle())
+                .field(book.getAuthor())
+                .field(book.getIsbn())
+                .field(book.getStatus());
+        csv.endRow();
+    }
+}
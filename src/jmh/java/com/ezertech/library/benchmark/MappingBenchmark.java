@@ -0,0 +1,86 @@
+package com.ezertech.library.benchmark;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.entity.Loan;
+import com.ezertech.library.model.enums.BookStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and page envelope construction, the per-row work of every listing endpoint.
+ * {@code BookServiceImpl.mapToResponse} and {@code LoanServiceImpl.mapToResponse} delegate to the
+ * {@code from} factories measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private List<Book> books;
+    private List<Loan> loans;
+    private List<BookResponse> bookResponses;
+
+    @Setup
+    public void setUp() {
+        books = new ArrayList<>(pageSize);
+        loans = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Book book = new Book((long) i, "Clean Code volume " + i, "Robert C. Martin",
+                    String.format("978%010d", i), 2008, BookStatus.AVAILABLE, LocalDateTime.now(), 0L);
+            books.add(book);
+            loans.add(Loan.builder()
+                    .id((long) i)
+                    .book(book)
+                    .borrowerName("Reader " + i)
+                    .borrowerEmail("reader" + i + "@test.com")
+                    .loanDate(LocalDate.now())
+                    .dueDate(LocalDate.now().plusDays(14))
+                    .build());
+        }
+        bookResponses = books.stream().map(BookResponse::from).toList();
+    }
+
+    @Benchmark
+    public void bookMapToResponse(Blackhole blackhole) {
+        for (Book book : books) {
+            blackhole.consume(BookResponse.from(book));
+        }
+    }
+
+    @Benchmark
+    public void loanMapToResponse(Blackhole blackhole) {
+        for (Loan loan : loans) {
+            blackhole.consume(LoanResponse.from(loan));
+        }
+    }
+
+    @Benchmark
+    public PageResponse<BookResponse> pageOfMappedBooks() {
+        return new PageResponse<>(books.stream().map(BookResponse::from).toList(), 0, pageSize, 50_000, 50_000 / pageSize);
+    }
+
+    @Benchmark
+    public PageResponse<BookResponse> pageResponse() {
+        return new PageResponse<>(bookResponses, 3, pageSize, 50_000, 50_000 / pageSize);
+    }
+
+    @Benchmark
+    public PageResponse<BookResponse> sliceResponse() {
+        return PageResponse.slice(bookResponses, 3, pageSize, true, 50_000L);
+    }
+}
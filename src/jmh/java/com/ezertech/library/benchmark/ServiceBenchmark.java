@@ -0,0 +1,105 @@
+package com.ezertech.library.benchmark;
+
+import com.ezertech.library.LibraryApplication;
+import com.ezertech.library.dto.request.SearchRequest;
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.service.ITBookService;
+import com.ezertech.library.service.ITLoanService;
+import com.ezertech.library.stats.LibraryStatsEngine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service read paths against the real application context on an in-process H2 database in
+ * PostgreSQL mode, seeded with {@value #BOOKS} books and {@value #LOANS} loans.
+ * <p>
+ * {@code searchIndex} runs keyword search once served by the in-memory index and once by the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int BOOKS = 50_000;
+    private static final int LOANS = 10_000;
+    private static final String[] KEYWORDS = {"patterns", "clean code", "syst", "author 42", "domain"};
+
+    @Param({"true", "false"})
+    private boolean searchIndex;
+
+    private ConfigurableApplicationContext context;
+    private ITBookService bookService;
+    private ITLoanService loanService;
+    private LibraryStatsEngine statsEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryApplication.class)
+                .profiles("h2")
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:jmh;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "library.search.index.enabled=" + searchIndex,
+                        "logging.level.root=WARN")
+                .run();
+        bookService = context.getBean(ITBookService.class);
+        loanService = context.getBean(ITLoanService.class);
+        statsEngine = context.getBean(LibraryStatsEngine.class);
+        List<Long> bookIds = CatalogSeeder.seedBooks(context, BOOKS);
+        CatalogSeeder.seedLoans(context, bookIds.subList(0, LOANS));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageResponse<BookResponse> keywordSearch() {
+        String keyword = KEYWORDS[ThreadLocalRandom.current().nextInt(KEYWORDS.length)];
+        return bookService.search(new SearchRequest(keyword), 0, 20, "title", "ASC");
+    }
+
+    @Benchmark
+    public PageResponse<BookResponse> listFirstPage() {
+        return bookService.search(null, 0, 20, "id", "ASC");
+    }
+
+    @Benchmark
+    public PageResponse<LoanResponse> loanSearchPage() {
+        return loanService.search(null, 0, 20, "loanDate", "DESC");
+    }
+
+    @Benchmark
+    public Map<String, Object> statsSnapshot() {
+        return statsEngine.snapshot();
+    }
+
+    @Benchmark
+    public void statsReconcile() {
+        statsEngine.reconcile();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void exportCsv() throws IOException {
+        bookService.exportCsv(Writer.nullWriter());
+    }
+}
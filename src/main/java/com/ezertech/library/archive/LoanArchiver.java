@@ -0,0 +1,86 @@
+package com.ezertech.library.archive;
+
+import com.ezertech.library.repository.ArchivedLoanRepository;
+import com.ezertech.library.repository.LoanRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+/**
+ * Moves loans returned more than {@code retention} ago from {@code loans} into {@code loans_archive},
+ * so the table behind active-loan counts, overdue checks and searches only grows with open loans.
+ * <p>
+ * Each batch of at most {@code batchSize} loans is copied and deleted in its own short transaction;
+ * row locks are held for one batch only, and a run interrupted halfway just resumes on the next one.
+ * Archived loans are counted in {@value #ARCHIVED}.
+ */
+@Slf4j
+@Component
+public class LoanArchiver {
+
+    public static final String ARCHIVED = "library.loans.archived";
+
+    private final LoanRepository loanRepository;
+    private final ArchivedLoanRepository archivedLoanRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Period retention;
+    private final int batchSize;
+    private final Counter archived;
+
+    // La tanda siguiente solo hace falta si esta se llenó
+    private record Batch(int selected, int moved) {}
+
+    public LoanArchiver(LoanRepository loanRepository,
+                        ArchivedLoanRepository archivedLoanRepository,
+                        TransactionTemplate transactionTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${library.loans.archive.retention:P90D}") Period retention,
+                        @Value("${library.loans.archive.batch-size:1000}") int batchSize) {
+        this.loanRepository = loanRepository;
+        this.archivedLoanRepository = archivedLoanRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.archived = Counter.builder(ARCHIVED)
+                .description("Returned loans moved to loans_archive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return number of loans archived in this run
+     */
+    @Scheduled(cron = "${library.loans.archive.cron:0 30 2 * * *}")
+    public int archive() {
+        LocalDate cutoff = LocalDate.now().minus(retention);
+        long start = System.nanoTime();
+        int total = 0;
+        Batch batch;
+        do {
+            batch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += batch.moved();
+        } while (batch.selected() == batchSize);
+
+        archived.increment(total);
+        log.info("Archived {} loans returned before {} in {} ms",
+                total, cutoff, (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    private Batch archiveBatch(LocalDate cutoff) {
+        List<Long> ids = loanRepository.findIdsReturnedBefore(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return new Batch(0, 0);
+        }
+        archivedLoanRepository.copyReturnedLoans(ids);
+        return new Batch(ids.size(), loanRepository.deleteReturnedByIdIn(ids));
+    }
+}
@@ -0,0 +1,78 @@
+package com.ezertech.library.cache;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of books by id and by ISBN, holding the immutable {@link BookResponse} rather than
+ * entities so a cached book can never leak into a persistence context.
+ * <p>
+ * Entries are dropped on every {@link BookChangedEvent} (edits, deletions and the status changes made
+ * by checkouts and returns), both before the commit and once the transaction has completed, rollbacks
+ * included. A read that races with a change can still put back the old row; {@code ttl} bounds how
+ * long that can last. Hits, misses, evictions and size are published as the {@code cache.*} meters of
+ * {@code books.by-id} and {@code books.by-isbn}.
+ */
+@Component
+public class BookCache {
+
+    private final Cache<Long, BookResponse> byId;
+    private final Cache<String, BookResponse> byIsbn;
+
+    public BookCache(@Value("${library.books.cache.max-size:10000}") long maxSize,
+                     @Value("${library.books.cache.ttl:PT5M}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.byId = CaffeineCacheMetrics.monitor(meterRegistry, build(maxSize, ttl), "books.by-id");
+        this.byIsbn = CaffeineCacheMetrics.monitor(meterRegistry, build(maxSize, ttl), "books.by-isbn");
+    }
+
+    private static <K> Cache<K, BookResponse> build(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /** The cached book, or the one {@code loader} finds; books that do not exist are not cached. */
+    public Optional<BookResponse> byId(Long id, Function<Long, Optional<BookResponse>> loader) {
+        return Optional.ofNullable(byId.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public Optional<BookResponse> byIsbn(String isbn, Function<String, Optional<BookResponse>> loader) {
+        return Optional.ofNullable(byIsbn.get(isbn, key -> loader.apply(key).orElse(null)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void beforeBookCommitted(BookChangedEvent event) {
+        evict(event);
+    }
+
+    // Segunda pasada al terminar, también tras un rollback: descarta lo leído con la transacción abierta
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        evict(event);
+    }
+
+    private void evict(BookChangedEvent event) {
+        byId.invalidate(event.bookId());
+        if (event.before() != null) {
+            byIsbn.invalidate(event.before().isbn());
+        }
+        if (event.after() != null) {
+            byIsbn.invalidate(event.after().isbn());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ezertech.library.cache;
+
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.routing.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide modification counter behind the weak ETags of book search pages.
+ * <p>
+ * Every committed book change, checkouts and returns included, moves it forward, so a search page
+ * can be revalidated without running the search. The startup time in the tag retires tags handed out
+ * by a previous run; each instance keeps its own counter.
+ * <p>
+ * With a read replica, a page tagged right after a change could be read from a replica that has not
+ * replayed it yet, and would then be revalidated under the new tag until the next change. For the
+ * maximum tolerated lag plus one check interval after a change, {@link #etag()} therefore routes the
+ * thread's reads to the primary.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong lastChangeMillis = new AtomicLong();
+    private final long replicaWindowMillis;
+
+    public CatalogVersion(@Value("${library.datasource.replica.url:}") String replicaUrl,
+                          @Value("${library.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                          @Value("${library.datasource.replica.lag-check-interval:PT1S}") Duration interval) {
+        // Sin réplica todas las lecturas van a la primaria y no hay ventana que cubrir
+        this.replicaWindowMillis = replicaUrl.isBlank() ? 0 : maxLag.plus(interval).toMillis();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        // La marca de tiempo va antes que el contador: quien vea la versión nueva ve también su ventana
+        lastChangeMillis.set(System.currentTimeMillis());
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Weak ETag for the current state of the catalog; read it before running the query it tags, on the
+     * same thread, so that query does not run on a replica still missing a change the tag includes.
+     */
+    public String etag() {
+        String etag = "W/\"" + epoch + "-" + changes.get() + "\"";
+        if (replicaWindowMillis > 0) {
+            long settledAt = lastChangeMillis.get() + replicaWindowMillis;
+            if (settledAt > System.currentTimeMillis()) {
+                ReadYourWrites.pinUntil(settledAt);
+            }
+        }
+        return etag;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ezertech.library.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache of rendered HTML fragments, such as the rows of the book table or the dashboard cards, which
+ * pages insert with {@code th:utext}.
+ * <p>
+ * Callers put the version of the data into the key ({@link CatalogVersion#etag()} or the values shown),
+ * read before loading that data: once the data changes, the key changes and the old fragment is no longer
+ * used, so a hit costs neither queries nor template evaluation. Superseded fragments age out by size
+ * and {@code ttl}, which also bounds how long a fragment rendered from a lagging read replica can be served.
+ * Hits and misses are published as the {@code cache.*} meters of {@code fragments}.
+ * <p>
+ * One rendering is served to every visitor, so fragments are rendered without the request: no session id
+ * in URLs, no per-visitor locale. Templates build their links from the {@code contextPath} variable
+ * instead of {@code @{...}}, which needs a web context.
+ */
+@Component
+public class FragmentCache {
+
+    private final Cache<String, String> fragments;
+    private final ITemplateEngine templateEngine;
+    private final String contextPath;
+
+    public FragmentCache(@Value("${library.fragments.cache.max-size:200}") long maxSize,
+                         @Value("${library.fragments.cache.ttl:PT1M}") Duration ttl,
+                         @Value("${server.servlet.context-path:}") String contextPath,
+                         ITemplateEngine templateEngine,
+                         MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.contextPath = contextPath;
+        this.fragments = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<String, String>build(), "fragments");
+    }
+
+    /**
+     * The fragment cached under {@code key}, or {@code template} rendered with the variables {@code model}
+     * supplies; {@code model} is only called on a miss.
+     */
+    public String render(String key, String template, Supplier<Map<String, Object>> model) {
+        return fragments.get(key, k -> {
+            // Contexto sin petición: lo renderizado no puede depender de quién provocó el fallo de caché
+            Context context = new Context(Locale.ROOT, model.get());
+            context.setVariable("contextPath", contextPath);
+            return templateEngine.process(template, context);
+        });
+    }
+}
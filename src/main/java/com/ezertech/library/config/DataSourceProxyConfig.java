@@ -0,0 +1,53 @@
+package com.ezertech.library.config;
+
+import com.ezertech.library.metrics.QueryCountingListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application {@code DataSource} in a datasource-proxy that reports every statement, its
+ * affected rows and every result set row to {@link QueryCountingListener}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.sql.proxy.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new QueryCountingDataSourcePostProcessor();
+    }
+
+    // Último en la cadena: el proxy envuelve también el límite de conexiones de VirtualThreadConfig
+    private static class QueryCountingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final QueryCountingListener listener = new QueryCountingListener();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // Con réplica se envuelven los pools: el proxy de enrutado de ReadReplicaConfig contaría dos veces
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                    || bean instanceof LazyConnectionDataSourceProxy) {
+                return bean;
+            }
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener)
+                    .methodListener(listener)
+                    .proxyResultSet()
+                    .build();
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
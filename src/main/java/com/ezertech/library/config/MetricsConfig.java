@@ -0,0 +1,28 @@
+package com.ezertech.library.config;
+
+import com.ezertech.library.metrics.QueryStatsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    // Los tests de slice (@WebMvcTest) no levantan Micrometer
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final int statementBudget;
+
+    public MetricsConfig(ObjectProvider<MeterRegistry> meterRegistry,
+                         @Value("${library.sql.statement-budget:20}") int statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryStatsInterceptor(meterRegistry, statementBudget));
+    }
+}
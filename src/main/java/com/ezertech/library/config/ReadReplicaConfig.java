@@ -0,0 +1,98 @@
+package com.ezertech.library.config;
+
+import com.ezertech.library.routing.ReadYourWritesFilter;
+import com.ezertech.library.routing.ReplicaLagMonitor;
+import com.ezertech.library.routing.ReplicaRoutingDataSource;
+import com.ezertech.library.routing.WriteCommitListener;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write split between the primary ({@code spring.datasource.*}) and a streaming replica
+ * ({@code library.datasource.replica.*}), active when a replica URL is configured.
+ * <p>
+ * The application {@code DataSource} is a {@link LazyConnectionDataSourceProxy}: it only fetches a
+ * physical connection at the first statement, once the transaction has marked the connection read-only,
+ * so {@code @Transactional(readOnly = true)} methods go through {@link ReplicaRoutingDataSource} and
+ * read-write transactions use the primary. Inherited CRUD reads such as {@code findById} or
+ * {@code existsById} run in the read-only transaction of {@code SimpleJpaRepository} when called
+ * outside a transaction, so they read from the replica too: a service that reads before it writes
+ * has to be {@code @Transactional} itself.
+ * <p>
+ * After a write, the same thread and, through a cookie, the same client read from the primary for the
+ * maximum tolerated lag plus one check interval, the longest a committed change can be missing from a
+ * replica still considered usable.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(@Value("${spring.datasource.url}") String url,
+                                       @Value("${spring.datasource.username:}") String username,
+                                       @Value("${spring.datasource.password:}") String password) {
+        return pool("primary", url, username, password);
+    }
+
+    @Bean
+    @ConfigurationProperties("library.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(@Value("${library.datasource.replica.url}") String url,
+                                       @Value("${library.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                       @Value("${library.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = pool("replica", url, username, password);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        return pool;
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                        @Value("${library.datasource.replica.lag-query}") String lagQuery,
+                                        @Value("${library.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                        MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                          @Qualifier("replicaDataSource") DataSource replica,
+                          ReplicaLagMonitor replicaLagMonitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor));
+        return dataSource;
+    }
+
+    // Boot registra los TransactionExecutionListener en el gestor de transacciones
+    @Bean
+    WriteCommitListener writeCommitListener(@Value("${library.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                            @Value("${library.datasource.replica.lag-check-interval:PT1S}") Duration interval) {
+        return new WriteCommitListener(maxLag.plus(interval));
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(@Value("${library.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                              @Value("${library.datasource.replica.lag-check-interval:PT1S}") Duration interval) {
+        return new ReadYourWritesFilter(maxLag.plus(interval));
+    }
+}
@@ -0,0 +1,49 @@
+package com.ezertech.library.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serving of {@code /css} and {@code /js}.
+ * <p>
+ * Links built with {@code @{...}} in templates are rewritten by {@link ResourceUrlEncodingFilter} to
+ * content-hashed URLs such as {@code /css/bootstrap.min-<md5>.css}, which are cached by browsers for a
+ * year as immutable. The plain URLs still work but must be revalidated. When the client accepts it, the
+ * brotli or gzip variant written at build time by {@code AssetPrecompressor} is sent instead of the file.
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final Duration VERSIONED_MAX_AGE = Duration.ofDays(365);
+
+    private static final List<String> DIRECTORIES = List.of("css", "js");
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String directory : DIRECTORIES) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations("classpath:/static/" + directory + "/")
+                    .setCacheControl(CacheControl.noCache())
+                    .resourceChain(true)
+                    // Orden de Spring: primero la codificación, luego la versión, al final la ruta
+                    .addResolver(new VersionedCacheControlResolver(
+                            CacheControl.maxAge(VERSIONED_MAX_AGE).cachePublic().immutable()))
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    @Bean
+    ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
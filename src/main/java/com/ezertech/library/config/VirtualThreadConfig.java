@@ -0,0 +1,74 @@
+package com.ezertech.library.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Extra wiring for {@code spring.threads.virtual.enabled=true}.
+ * <p>
+ * Boot itself moves Tomcat request handling, {@code @Async} work and scheduled tasks onto virtual threads;
+ * this configuration bounds how many of them may hold a JDBC connection at once.
+ * <p>
+ * {@code spring.datasource.hikari.connection-timeout} stays the longest a caller waits for a connection.
+ * Hikari keeps {@code library.datasource.pool-wait} of it: with a permit per pooled connection the pool
+ * only waits while it opens or validates one. The semaphore waits for the rest.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+    // Mínimo que acepta Hikari para connectionTimeout
+    private static final long HIKARI_MIN_TIMEOUT_MILLIS = 250;
+
+    @Bean
+    static BeanPostProcessor connectionLimitingPostProcessor(Environment environment) {
+        Duration poolWait = environment.getProperty("library.datasource.pool-wait", Duration.class,
+                Duration.ofSeconds(1));
+        return new ConnectionLimitingPostProcessor(Math.max(poolWait.toMillis(), HIKARI_MIN_TIMEOUT_MILLIS));
+    }
+
+    // Primero en la cadena: tiene que ver el HikariDataSource antes de que otro post-procesador lo envuelva
+    @RequiredArgsConstructor
+    private static class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final long poolWaitMillis;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) {
+                return bean;
+            }
+            // Hikari solo aplica su valor por defecto al arrancar el pool
+            int poolSize = hikari.getMaximumPoolSize() > 0
+                    ? hikari.getMaximumPoolSize()
+                    : HIKARI_DEFAULT_POOL_SIZE;
+            long budget = hikari.getConnectionTimeout();
+            if (budget <= poolWaitMillis) {
+                throw new IllegalStateException("connection-timeout of '" + beanName + "' (" + budget
+                        + " ms) must be longer than library.datasource.pool-wait (" + poolWaitMillis + " ms)");
+            }
+            // Presupuesto único: lo que espera el semáforo más lo que espera Hikari no supera connection-timeout
+            hikari.setConnectionTimeout(poolWaitMillis);
+            long permitWait = budget - poolWaitMillis;
+            log.info("Virtual threads enabled: limiting '{}' to {} concurrent connections, waiting up to {} ms "
+                    + "for a permit and {} ms for the pool", beanName, poolSize, permitWait, poolWaitMillis);
+            return new ConnectionLimitingDataSource(hikari, poolSize, permitWait);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.ezertech.library.controller;
 
+import com.ezertech.library.cache.CatalogVersion;
 import com.ezertech.library.dto.request.BookRequest;
+import com.ezertech.library.dto.request.SearchRequest;
 import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.dto.response.BulkImportResponse;
 import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.service.ITBookImportService;
 import com.ezertech.library.service.ITBookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,10 +15,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -26,7 +40,11 @@ import java.util.Map;
 )
 public class BookController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ITBookService bookService;
+    private final ITBookImportService bookImportService;
+    private final CatalogVersion catalogVersion;
 
     @Operation(
             summary = "Create a new book",
@@ -45,12 +63,38 @@ public class BookController {
                 .body(bookService.create(request));
     }
 
+    @Operation(
+            summary = "Bulk import books",
+            description = "Streams a CSV (header: title,author,isbn,publicationYear[,status]) or NDJSON upload "
+                    + "into the catalog. Invalid rows and ISBNs that already exist are skipped and reported"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import finished; see the per-row errors"),
+            @ApiResponse(responseCode = "400", description = "Empty upload or missing CSV columns"),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    })
+    @PostMapping(value = "/bulk", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResponse> bulkImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset), 64 * 1024);
+
+        BulkImportResponse result = MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)
+                ? bookImportService.importNdjson(reader)
+                : bookImportService.importCsv(reader);
+        return ResponseEntity.ok(result);
+    }
+
     @Operation(
             summary = "Get book by ID",
             description = "Returns a book based on its ID"
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Book found"),
+            @ApiResponse(responseCode = "304", description = "Book unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Book not found")
     })
     @GetMapping("/{id}")
@@ -58,28 +102,87 @@ public class BookController {
             @Parameter(description = "Book ID", example = "1")
             @PathVariable Long id) {
 
-        return ResponseEntity.ok(bookService.findById(id));
+        // Con un If-None-Match que coincide, Spring responde 304 sin serializar el cuerpo
+        BookResponse book = bookService.findById(id);
+        return ResponseEntity.ok().eTag(etagOf(book)).body(book);
+    }
+
+    @Operation(
+            summary = "Get book by ISBN",
+            description = "Returns a book based on its 13-digit ISBN"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Book found"),
+            @ApiResponse(responseCode = "304", description = "Book unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Book not found")
+    })
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<BookResponse> findByIsbn(
+            @Parameter(description = "Book ISBN", example = "9780132350884")
+            @PathVariable String isbn) {
+
+        BookResponse book = bookService.findByIsbn(isbn);
+        return ResponseEntity.ok().eTag(etagOf(book)).body(book);
     }
 
     @Operation(
-            summary = "Search loans (paginated)",
-            description = "Returns a paginated list of loans with sorting options"
+            summary = "Search books (paginated)",
+            description = "Returns a paginated list of books, optionally filtered by a keyword on title or author"
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Paginated loans list")
+            @ApiResponse(responseCode = "200", description = "Paginated books list"),
+            @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag in If-None-Match")
     })
     @GetMapping("/search")
     public ResponseEntity<PageResponse<BookResponse>> search(
+            @Parameter(description = "Text to look for in the title or author", example = "java")
+            @RequestParam(required = false) String keyword,
+            @Parameter(description = "Match only words starting with the keyword instead of any substring")
+            @RequestParam(defaultValue = "false") boolean prefix,
+            @Parameter(description = "Cursor pagination: nextCursor of the previous page, empty for the first page. Ignores page")
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "ASC") String direction
+            @RequestParam(defaultValue = "ASC") String direction,
+            @Parameter(description = "When false, skips the COUNT query and only reports hasNext")
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @Parameter(description = "With withTotal=false, adds a planner-based estimatedTotal")
+            @RequestParam(defaultValue = "false") boolean estimate,
+            WebRequest webRequest
     ) {
+        // Se comprueba antes de buscar: un 304 no toca la base de datos
+        if (webRequest.checkNotModified(catalogVersion.etag())) {
+            return null;
+        }
+        SearchRequest request = new SearchRequest(keyword, prefix);
+        if (after != null) {
+            return ResponseEntity.ok(bookService.searchAfter(request, after, size, sortBy, direction));
+        }
+        if (!withTotal) {
+            return ResponseEntity.ok(bookService.searchSlice(request, page, size, sortBy, direction, estimate));
+        }
         return ResponseEntity.ok(
-                bookService.search(null, page, size, sortBy, direction)
+                bookService.search(request, page, size, sortBy, direction)
         );
     }
 
+    @Operation(
+            summary = "Suggest available books",
+            description = "Typeahead for the loan form: available books with a title word, author word or ISBN "
+                    + "starting with the query, in alphabetical order of the matched text"
+    )
+    @ApiResponse(responseCode = "200", description = "Matching available books, at most limit (capped at 50)")
+    @GetMapping("/available/suggest")
+    public ResponseEntity<List<BookResponse>> suggestAvailable(
+            @Parameter(description = "Start of a title word, author word or ISBN", example = "cle")
+            @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "Maximum number of books to return", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(bookService.suggestAvailable(q, limit));
+    }
+
     @Operation(
             summary = "Update a book",
             description = "Updates book information by ID"
@@ -124,5 +227,9 @@ public class BookController {
     public ResponseEntity<Map<String, Object>> getLibraryStats() {
         return ResponseEntity.ok(bookService.getLibraryStats());
     }
-}
 
+    // ETag fuerte: el id distingue libros que reutilizan un ISBN, la versión cambia con cada modificación
+    private static String etagOf(BookResponse book) {
+        return "\"" + book.id() + "-" + book.version() + "\"";
+    }
+}
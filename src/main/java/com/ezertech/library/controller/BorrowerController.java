@@ -0,0 +1,62 @@
+package com.ezertech.library.controller;
+
+import com.ezertech.library.dto.response.BorrowerSummaryResponse;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.service.ITBorrowerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Borrowers", description = "Loan history and totals per borrower")
+@RestController
+@RequestMapping("/api/borrowers")
+@RequiredArgsConstructor
+public class BorrowerController {
+
+    private final ITBorrowerService borrowerService;
+
+    @Operation(
+            summary = "Get borrower summary",
+            description = "Returns the active, overdue and lifetime loan counts of a borrower"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Borrower summary"),
+            @ApiResponse(responseCode = "404", description = "No loans were ever made to this email")
+    })
+    @GetMapping("/{email}")
+    public ResponseEntity<BorrowerSummaryResponse> getSummary(
+            @Parameter(description = "Borrower email", example = "andres.moreno@email.com")
+            @PathVariable String email) {
+
+        return ResponseEntity.ok(borrowerService.getSummary(email));
+    }
+
+    @Operation(
+            summary = "List borrower loans (cursor paginated)",
+            description = "Returns the loans of a borrower, newest first by default, one keyset page at a time"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of the borrower's loans"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort field")
+    })
+    @GetMapping("/{email}/loans")
+    public ResponseEntity<PageResponse<LoanResponse>> findLoans(
+            @Parameter(description = "Borrower email", example = "andres.moreno@email.com")
+            @PathVariable String email,
+            @Parameter(description = "nextCursor of the previous page, empty for the first page")
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "loanDate") String sortBy,
+            @RequestParam(defaultValue = "DESC") String direction,
+            @Parameter(description = "Also include returned loans already moved to the archive")
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+
+        return ResponseEntity.ok(borrowerService.findLoans(email, after, size, sortBy, direction, includeArchived));
+    }
+}
@@ -4,6 +4,7 @@ import com.ezertech.library.dto.response.LoanResponse;
 import com.ezertech.library.dto.response.PageResponse;
 import com.ezertech.library.service.ITLoanService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -46,7 +47,8 @@ public class LoanController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book returned successfully"),
-            @ApiResponse(responseCode = "404", description = "Loan not found")
+            @ApiResponse(responseCode = "404", description = "Loan not found"),
+            @ApiResponse(responseCode = "409", description = "Loan already returned")
     })
     @PutMapping("/{loanId}/return")
     public ResponseEntity<LoanResponse> returnBook(
@@ -57,20 +59,50 @@ public class LoanController {
 
     @Operation(
             summary = "Search loans (paginated)",
-            description = "Returns a paginated list of loans with sorting options"
+            description = "Returns a paginated list of loans with sorting options, optionally filtered by a keyword "
+                    + "on the borrower name, borrower email or book title"
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Paginated loans list")
     })
     @GetMapping("/search")
     public ResponseEntity<PageResponse<LoanResponse>> search(
+            @Parameter(description = "Text to look for in the borrower name, borrower email or book title", example = "fowler")
+            @RequestParam(required = false) String keyword,
+            @Parameter(description = "Cursor pagination: nextCursor of the previous page, empty for the first page. Ignores page")
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "ASC") String direction
+            @RequestParam(defaultValue = "ASC") String direction,
+            @Parameter(description = "When false, skips the COUNT query and only reports hasNext")
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @Parameter(description = "With withTotal=false, adds a planner-based estimatedTotal")
+            @RequestParam(defaultValue = "false") boolean estimate
     ) {
+        if (after != null) {
+            return ResponseEntity.ok(loanService.searchAfter(keyword, after, size, sortBy, direction));
+        }
+        if (!withTotal) {
+            return ResponseEntity.ok(loanService.searchSlice(keyword, page, size, sortBy, direction, estimate));
+        }
         return ResponseEntity.ok(
-                loanService.search(page, size, sortBy, direction)
+                loanService.search(keyword, page, size, sortBy, direction)
         );
     }
+
+    @Operation(
+            summary = "List overdue loans (paginated)",
+            description = "Returns open loans past their due date, oldest due date first"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Paginated overdue loans list")
+    })
+    @GetMapping("/overdue")
+    public ResponseEntity<PageResponse<LoanResponse>> overdue(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(loanService.findOverdue(page, size));
+    }
 }
@@ -0,0 +1,122 @@
+package com.ezertech.library.controller;
+
+import com.ezertech.library.dto.response.LoanActivityResponse;
+import com.ezertech.library.dto.response.RollupBackfillResponse;
+import com.ezertech.library.dto.response.TopBookResponse;
+import com.ezertech.library.dto.response.TopBorrowerResponse;
+import com.ezertech.library.service.ITReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Tag(name = "Reports", description = "Loan activity reports read from the daily rollups")
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final ITReportService reportService;
+
+    @Operation(
+            summary = "Daily loan activity",
+            description = "Loans opened and returned per day; defaults to the last 30 days"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One entry per day of the range"),
+            @ApiResponse(responseCode = "400", description = "Invalid or too long range")
+    })
+    @GetMapping("/loans/daily")
+    public ResponseEntity<List<LoanActivityResponse>> dailyActivity(
+            @Parameter(description = "First day, inclusive", example = "2026-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive; defaults to today", example = "2026-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate end = endOf(to);
+        return ResponseEntity.ok(reportService.dailyActivity(startOf(from, end), end));
+    }
+
+    @Operation(
+            summary = "Monthly loan activity",
+            description = "Loans opened and returned per calendar month; defaults to the last 12 months"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One entry per month of the range"),
+            @ApiResponse(responseCode = "400", description = "Invalid or too long range")
+    })
+    @GetMapping("/loans/monthly")
+    public ResponseEntity<List<LoanActivityResponse>> monthlyActivity(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate end = endOf(to);
+        LocalDate start = from != null ? from : end.minusMonths(11).withDayOfMonth(1);
+        return ResponseEntity.ok(reportService.monthlyActivity(start, end));
+    }
+
+    @Operation(
+            summary = "Most borrowed books",
+            description = "Books with the most loans opened in the range; defaults to the last 30 days"
+    )
+    @ApiResponse(responseCode = "200", description = "At most limit books (capped at 100), most borrowed first")
+    @GetMapping("/books/top")
+    public ResponseEntity<List<TopBookResponse>> topBooks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        LocalDate end = endOf(to);
+        return ResponseEntity.ok(reportService.topBooks(startOf(from, end), end, limit));
+    }
+
+    @Operation(
+            summary = "Most active borrowers",
+            description = "Borrowers with the most loans opened in the range; defaults to the last 30 days"
+    )
+    @ApiResponse(responseCode = "200", description = "At most limit borrowers (capped at 100), most active first")
+    @GetMapping("/borrowers/top")
+    public ResponseEntity<List<TopBorrowerResponse>> topBorrowers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        LocalDate end = endOf(to);
+        return ResponseEntity.ok(reportService.topBorrowers(startOf(from, end), end, limit));
+    }
+
+    @Operation(
+            summary = "Rebuild the rollups",
+            description = "Recomputes the daily rollups of the range from the loan history, archive included. "
+                    + "Defaults to everything from the first loan up to yesterday"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Range rebuilt and rows written"),
+            @ApiResponse(responseCode = "400", description = "Invalid range")
+    })
+    @PostMapping("/backfill")
+    public ResponseEntity<RollupBackfillResponse> backfill(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return ResponseEntity.ok(reportService.backfill(from, to));
+    }
+
+    private static LocalDate endOf(LocalDate to) {
+        return to != null ? to : LocalDate.now();
+    }
+
+    private static LocalDate startOf(LocalDate from, LocalDate end) {
+        return from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+    }
+}
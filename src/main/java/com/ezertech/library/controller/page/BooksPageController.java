@@ -1,5 +1,7 @@
 package com.ezertech.library.controller.page;
 
+import com.ezertech.library.cache.CatalogVersion;
+import com.ezertech.library.cache.FragmentCache;
 import com.ezertech.library.dto.request.BookRequest;
 import com.ezertech.library.dto.response.BookResponse;
 import com.ezertech.library.exception.BookDeletionException;
@@ -15,9 +17,13 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/books")
@@ -25,13 +31,18 @@ import java.util.List;
 public class BooksPageController {
 
     private final ITBookService bookService;
+    private final FragmentCache fragmentCache;
+    private final CatalogVersion catalogVersion;
 
     // Lista de libros
     @GetMapping
     public String list(Model model) {
-        // Aquí puedes usar tu servicio para traer todos los libros
-        List<BookResponse> books = bookService.search(null, 0, 50, "id", "ASC").content();
-        model.addAttribute("books", books);
+        // Las filas se renderizan una vez por versión del catálogo; la página no muestra totales,
+        // así que basta la consulta Slice, sin COUNT
+        String key = "book-rows:" + catalogVersion.etag();
+        String rows = fragmentCache.render(key, "fragments/book-rows", () ->
+                Map.of("books", bookService.searchSlice(null, 0, 50, "id", "ASC", false).content()));
+        model.addAttribute("bookRows", rows);
         return "books/list"; // templates/books/list.html
     }
 
@@ -110,21 +121,12 @@ public class BooksPageController {
     @GetMapping("/export")
     public void exportBooksToCsv(HttpServletResponse response) throws IOException {
         response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
         response.setHeader("Content-Disposition", "attachment; filename=libros.csv");
 
-        List<BookResponse> books = bookService.findAll();
-
-        PrintWriter writer = response.getWriter();
-        writer.println("Título,Autor,ISBN,Estado");
-
-        for (BookResponse book : books) {
-            writer.printf("%s,%s,%s,%s%n",
-                    book.title(),
-                    book.author(),
-                    book.isbn(),
-                    book.status());
-        }
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 16 * 1024);
+        bookService.exportCsv(writer);
     }
 
 }
-
@@ -1,5 +1,6 @@
 package com.ezertech.library.controller.page;
 
+import com.ezertech.library.cache.FragmentCache;
 import com.ezertech.library.service.ITBookService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
@@ -7,20 +8,24 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import java.util.Map;
+import java.util.TreeMap;
 
 @Controller
 @RequiredArgsConstructor
 public class HomeController {
 
     private final ITBookService bookService;
+    private final FragmentCache fragmentCache;
 
     @GetMapping("/")
     public String index(Model model) {
         // Obtener estadísticas desde el servicio
         Map<String, Object> stats = bookService.getLibraryStats();
 
-        // Pasarlas al modelo para Thymeleaf
-        model.addAttribute("stats", stats);
+        // Las cifras mostradas son la versión: mientras no cambien se reutilizan las tarjetas renderizadas
+        String key = "stats-cards:" + new TreeMap<>(stats);
+        model.addAttribute("statsCards",
+                fragmentCache.render(key, "fragments/stats-cards", () -> Map.of("stats", stats)));
 
         // Renderizar la vista index.html
         return "index";
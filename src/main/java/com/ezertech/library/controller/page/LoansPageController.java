@@ -1,10 +1,11 @@
 package com.ezertech.library.controller.page;
 
 import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.dto.response.BookResponse;
 import com.ezertech.library.dto.response.LoanResponse;
 import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.exception.BookNotFoundException;
 import com.ezertech.library.exception.LoanNotFoundException;
-import com.ezertech.library.model.enums.BookStatus;
 import com.ezertech.library.service.ITBookService;
 import com.ezertech.library.service.ITLoanService;
 import jakarta.validation.Valid;
@@ -28,8 +29,7 @@ public class LoansPageController {
     @GetMapping("/new")
     public String newLoan(Model model) {
         model.addAttribute("loan", new LoanRequest(null, "", "", LocalDate.now()));
-        // Solo libros disponibles
-        model.addAttribute("books", bookService.findByStatus(BookStatus.AVAILABLE));
+        // El libro se elige con el typeahead de /api/books/available/suggest, no se listan todos
         return "loans/form";
     }
 
@@ -40,7 +40,7 @@ public class LoansPageController {
                        Model model,
                        RedirectAttributes redirect) {
         if (result.hasErrors()) {
-            model.addAttribute("books", bookService.findByStatus(BookStatus.AVAILABLE));
+            model.addAttribute("selectedBook", selectedBook(request.bookId()));
             return "loans/form";
         }
         loanService.create(request);
@@ -48,6 +48,18 @@ public class LoansPageController {
         return "redirect:/loans";
     }
 
+    // Conserva el libro ya elegido al volver a mostrar el formulario con errores
+    private BookResponse selectedBook(Long bookId) {
+        if (bookId == null) {
+            return null;
+        }
+        try {
+            return bookService.findById(bookId);
+        } catch (BookNotFoundException ex) {
+            return null;
+        }
+    }
+
     @GetMapping("/return/{id}")
     public String returnLoan(@PathVariable Long id, RedirectAttributes redirect) {
         try {
@@ -63,8 +75,11 @@ public class LoansPageController {
     public String list(@RequestParam(defaultValue = "0") int page,
                        @RequestParam(defaultValue = "10") int size,
                        @RequestParam(required = false) String query,
+                       @RequestParam(defaultValue = "true") boolean withTotal,
                        Model model) {
-        PageResponse<LoanResponse> loans = loanService.search(page, size, "loanDate", "desc");
+        PageResponse<LoanResponse> loans = withTotal
+                ? loanService.search(query, page, size, "loanDate", "desc")
+                : loanService.searchSlice(query, page, size, "loanDate", "desc", false);
         model.addAttribute("loans", loans);
         model.addAttribute("query", query);
         return "loans/list";
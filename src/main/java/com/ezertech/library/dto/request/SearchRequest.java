@@ -1,5 +1,15 @@
 package com.ezertech.library.dto.request;
 
 public record SearchRequest(
-        String keyword
-) {}
+        String keyword,
+        boolean prefix
+) {
+
+    public SearchRequest(String keyword) {
+        this(keyword, false);
+    }
+
+    public boolean hasKeyword() {
+        return keyword != null && !keyword.isBlank();
+    }
+}
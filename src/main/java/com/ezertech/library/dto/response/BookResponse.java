@@ -1,5 +1,6 @@
 package com.ezertech.library.dto.response;
 
+import com.ezertech.library.model.entity.Book;
 import com.ezertech.library.model.enums.BookStatus;
 
 import java.time.LocalDateTime;
@@ -11,5 +12,24 @@ public record BookResponse(
         String isbn,
         Integer publicationYear,
         BookStatus status,
-        LocalDateTime createdAt
-) {}
+        LocalDateTime createdAt,
+        Long version
+) {
+
+    public static BookResponse from(Book book) {
+        return new BookResponse(
+                book.getId(),
+                book.getTitle(),
+                book.getAuthor(),
+                book.getIsbn(),
+                book.getPublicationYear(),
+                book.getStatus(),
+                book.getCreatedAt(),
+                book.getVersion()
+        );
+    }
+
+    public BookResponse withStatus(BookStatus status) {
+        return new BookResponse(id, title, author, isbn, publicationYear, status, createdAt, version);
+    }
+}
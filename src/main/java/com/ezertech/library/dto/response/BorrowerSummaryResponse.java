@@ -0,0 +1,22 @@
+package com.ezertech.library.dto.response;
+
+import com.ezertech.library.model.entity.BorrowerSummary;
+
+public record BorrowerSummaryResponse(
+        String borrowerEmail,
+        String borrowerName,
+        int activeLoans,
+        int overdueLoans,
+        long lifetimeLoans
+) {
+
+    public static BorrowerSummaryResponse from(BorrowerSummary summary) {
+        return new BorrowerSummaryResponse(
+                summary.getBorrowerEmail(),
+                summary.getBorrowerName(),
+                summary.getActiveLoans(),
+                summary.getOverdueLoans(),
+                summary.getLifetimeLoans()
+        );
+    }
+}
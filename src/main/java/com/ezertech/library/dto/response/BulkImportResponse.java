@@ -0,0 +1,23 @@
+package com.ezertech.library.dto.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} lists rejected rows (capped, see {@code errorsTruncated});
+ * {@code rowsPerSecond} is the throughput over the whole request, parsing included.
+ */
+public record BulkImportResponse(
+        long received,
+        long imported,
+        long rejected,
+        List<RowError> errors,
+        boolean errorsTruncated,
+        long elapsedMillis,
+        double rowsPerSecond
+) {
+
+    /**
+     * @param row line number for CSV uploads, or the NDJSON line holding the record
+     */
+    public record RowError(long row, String isbn, String message) {}
+}
@@ -0,0 +1,14 @@
+package com.ezertech.library.dto.response;
+
+import java.time.LocalDate;
+
+/**
+ * Loans opened and returned in one period, which starts on {@code periodStart}: a day or the
+ * first day of a month.
+ */
+public record LoanActivityResponse(
+        LocalDate periodStart,
+        long loansOpened,
+        long loansReturned
+) {
+}
@@ -1,5 +1,8 @@
 package com.ezertech.library.dto.response;
 
+import com.ezertech.library.model.entity.ArchivedLoan;
+import com.ezertech.library.model.entity.Loan;
+
 import java.time.LocalDate;
 
 public record LoanResponse(
@@ -11,4 +14,31 @@ public record LoanResponse(
         LocalDate loanDate,
         LocalDate dueDate,
         LocalDate returnDate
-) {}
+) {
+
+    public static LoanResponse from(Loan loan) {
+        return new LoanResponse(
+                loan.getId(),
+                loan.getBook().getId(),
+                loan.getBook().getTitle(),
+                loan.getBorrowerName(),
+                loan.getBorrowerEmail(),
+                loan.getLoanDate(),
+                loan.getDueDate(),
+                loan.getReturnDate()
+        );
+    }
+
+    public static LoanResponse from(ArchivedLoan loan) {
+        return new LoanResponse(
+                loan.getId(),
+                loan.getBook().getId(),
+                loan.getBook().getTitle(),
+                loan.getBorrowerName(),
+                loan.getBorrowerEmail(),
+                loan.getLoanDate(),
+                loan.getDueDate(),
+                loan.getReturnDate()
+        );
+    }
+}
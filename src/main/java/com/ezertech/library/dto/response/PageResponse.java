@@ -2,10 +2,32 @@ package com.ezertech.library.dto.response;
 
 import java.util.List;
 
+/**
+ * A page of results. Offset pages fill {@code page}, {@code totalElements} and {@code totalPages}.
+ * Slices (no count query) and keyset pages leave the totals at -1 and only say whether more rows follow;
+ * slices may carry a planner-based {@code estimatedTotal} and keyset pages return {@code nextCursor},
+ * which is null on the last page.
+ */
 public record PageResponse<T>(
         List<T> content,
         int page,
         int size,
         long totalElements,
-        int totalPages
-) {}
+        int totalPages,
+        boolean hasNext,
+        String nextCursor,
+        Long estimatedTotal
+) {
+
+    public PageResponse(List<T> content, int page, int size, long totalElements, int totalPages) {
+        this(content, page, size, totalElements, totalPages, page + 1 < totalPages, null, null);
+    }
+
+    public static <T> PageResponse<T> slice(List<T> content, int page, int size, boolean hasNext, Long estimatedTotal) {
+        return new PageResponse<>(content, page, size, -1, -1, hasNext, null, estimatedTotal);
+    }
+
+    public static <T> PageResponse<T> keyset(List<T> content, int size, String nextCursor) {
+        return new PageResponse<>(content, -1, size, -1, -1, nextCursor != null, nextCursor, null);
+    }
+}
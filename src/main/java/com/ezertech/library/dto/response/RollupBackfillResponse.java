@@ -0,0 +1,15 @@
+package com.ezertech.library.dto.response;
+
+import java.time.LocalDate;
+
+/**
+ * Range rebuilt by a rollup backfill and the rows written to the overall, per-book and per-borrower tables.
+ */
+public record RollupBackfillResponse(
+        LocalDate from,
+        LocalDate to,
+        long dailyRows,
+        long bookRows,
+        long borrowerRows
+) {
+}
@@ -0,0 +1,8 @@
+package com.ezertech.library.dto.response;
+
+public record TopBookResponse(
+        Long bookId,
+        String title,
+        Long loans
+) {
+}
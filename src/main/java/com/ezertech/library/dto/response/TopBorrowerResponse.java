@@ -0,0 +1,7 @@
+package com.ezertech.library.dto.response;
+
+public record TopBorrowerResponse(
+        String borrowerEmail,
+        Long loans
+) {
+}
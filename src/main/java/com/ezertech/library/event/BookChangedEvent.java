@@ -0,0 +1,21 @@
+package com.ezertech.library.event;
+
+import com.ezertech.library.dto.response.BookResponse;
+
+/**
+ * Published by the book service after a book is created, updated or deleted.
+ * {@code before} is null for creations and {@code after} is null for deletions.
+ */
+public record BookChangedEvent(
+        BookResponse before,
+        BookResponse after
+) {
+
+    public Long bookId() {
+        return after != null ? after.id() : before.id();
+    }
+
+    public boolean isDeleted() {
+        return after == null;
+    }
+}
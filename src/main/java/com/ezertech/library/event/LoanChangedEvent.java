@@ -0,0 +1,31 @@
+package com.ezertech.library.event;
+
+import com.ezertech.library.dto.response.LoanResponse;
+
+/**
+ * Published by the loan service after a loan is created or returned.
+ * {@code before} is null for new loans.
+ */
+public record LoanChangedEvent(
+        LoanResponse before,
+        LoanResponse after
+) {
+
+    public Long loanId() {
+        return after.id();
+    }
+
+    /**
+     * The loan went from not existing (or returned) to open.
+     */
+    public boolean isOpened() {
+        return after.returnDate() == null && (before == null || before.returnDate() != null);
+    }
+
+    /**
+     * The loan was open and has just been returned.
+     */
+    public boolean isClosed() {
+        return before != null && before.returnDate() == null && after.returnDate() != null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ezertech.library.exception;
+
+public class BorrowerNotFoundException extends RuntimeException {
+
+    public BorrowerNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ezertech.library.exception;
+
+public class InvalidReportRangeException extends RuntimeException {
+
+    public InvalidReportRangeException(String message) {
+        super(message);
+    }
+}
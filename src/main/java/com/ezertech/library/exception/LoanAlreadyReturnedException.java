@@ -0,0 +1,8 @@
+package com.ezertech.library.exception;
+
+public class LoanAlreadyReturnedException extends RuntimeException {
+
+    public LoanAlreadyReturnedException(String message) {
+        super(message);
+    }
+}
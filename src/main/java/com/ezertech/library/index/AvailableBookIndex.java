@@ -0,0 +1,195 @@
+package com.ezertech.library.index;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sorted in-memory index of the books that can be lent right now, for the loan form typeahead.
+ * <p>
+ * Every word of the title and author, and the ISBN, is a key in a {@link TreeMap}, so the books
+ * matching a prefix are one contiguous range read in alphabetical order. Checkouts, returns and catalog
+ * edits arrive as {@link BookChangedEvent}s and move books in and out of the index.
+ * Until the initial load finishes, {@link #suggest} returns empty and callers fall back to the database.
+ * <p>
+ * Events are applied in the order their transactions' listeners run, which is not always commit
+ * order, so a book can be left in the wrong state. The index is therefore rebuilt from the database
+ * every {@code library.books.typeahead.index.rebuild-interval}, keeping its old contents, plus the
+ * events received meanwhile, until the new one is ready.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailableBookIndex {
+
+    private static final int LOAD_CHUNK = 1_000;
+
+    // Separa el texto del id en cada clave: ordena antes que cualquier carácter del texto
+    private static final char SEPARATOR = '\u0000';
+
+    private final BookRepository bookRepository;
+
+    @Value("${library.books.typeahead.index.enabled:true}")
+    private boolean enabled = true;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<BookChangedEvent> pending = new ArrayList<>();
+    private Map<Long, Entry> entries = new HashMap<>();
+    private NavigableMap<String, Long> keys = new TreeMap<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    private record Entry(BookResponse book, List<String> keys) {
+
+        static Entry of(BookResponse book) {
+            List<String> keys = new ArrayList<>();
+            addWordSuffixes(keys, normalize(book.title()), book.id());
+            addWordSuffixes(keys, normalize(book.author()), book.id());
+            keys.add(key(normalize(book.isbn()), book.id()));
+            return new Entry(book, keys);
+        }
+
+        // "clean code" genera "clean code" y "code": cualquier palabra puede empezar la búsqueda
+        private static void addWordSuffixes(List<String> keys, String text, Long id) {
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) != ' ' && (i == 0 || text.charAt(i - 1) == ' ')) {
+                    keys.add(key(text.substring(i), id));
+                }
+            }
+        }
+
+        private static String key(String text, Long id) {
+            return text + SEPARATOR + id;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${library.books.typeahead.index.rebuild-interval:PT10M}",
+            initialDelayString = "${library.books.typeahead.index.rebuild-interval:PT10M}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        // Desde aquí los eventos se guardan también para aplicarlos sobre la carga nueva
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, Entry> loadedEntries = new HashMap<>();
+        NavigableMap<String, Long> loadedKeys = new TreeMap<>();
+
+        long lastId = 0;
+        List<Book> chunk;
+        do {
+            chunk = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_CHUNK));
+            for (Book book : chunk) {
+                if (book.getStatus() == BookStatus.AVAILABLE) {
+                    Entry entry = Entry.of(BookResponse.from(book));
+                    loadedEntries.put(book.getId(), entry);
+                    entry.keys().forEach(key -> loadedKeys.put(key, book.getId()));
+                }
+                lastId = book.getId();
+            }
+        } while (chunk.size() == LOAD_CHUNK);
+
+        lock.writeLock().lock();
+        try {
+            entries = loadedEntries;
+            keys = loadedKeys;
+            pending.forEach(this::apply);
+            pending.clear();
+            rebuilding = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Available book index loaded {} books ({} keys) in {} ms",
+                loadedEntries.size(), loadedKeys.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(event);
+            }
+            if (!ready || rebuilding) {
+                pending.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Available books with a title word, author word or ISBN starting with {@code prefix}, in the
+     * alphabetical order of the matched text.
+     *
+     * @return empty when the index is not loaded yet and the caller should use the database
+     */
+    public Optional<List<BookResponse>> suggest(String prefix, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String normalized = normalize(prefix).strip();
+        if (normalized.isEmpty() || limit <= 0) {
+            return Optional.of(List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            // Un libro aparece una sola vez aunque coincidan varias de sus claves
+            Set<Long> ids = new LinkedHashSet<>();
+            for (Long id : keys.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+                if (ids.add(id) && ids.size() == limit) {
+                    break;
+                }
+            }
+            return Optional.of(ids.stream().map(id -> entries.get(id).book()).toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void apply(BookChangedEvent event) {
+        Entry previous = entries.remove(event.bookId());
+        if (previous != null) {
+            previous.keys().forEach(keys::remove);
+        }
+        if (!event.isDeleted() && event.after().status() == BookStatus.AVAILABLE) {
+            Entry entry = Entry.of(event.after());
+            entries.put(entry.book().id(), entry);
+            entry.keys().forEach(key -> keys.put(key, entry.book().id()));
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,290 @@
+package com.ezertech.library.index;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over book titles and authors.
+ * <p>
+ * Answers the same {@code LIKE '%keyword%'} question as {@link BookRepository#searchByKeyword}
+ * (and a word-prefix variant) without scanning the {@code books} table: the index resolves
+ * and pages the matching ids, and the caller only has to hydrate those rows.
+ * Until the initial load finishes, {@link #search} returns empty and callers fall back to the database.
+ * Pages come out in the same order as the fallback query sorted with {@link #sortOf}, so a client paging
+ * through the results does not skip or repeat books when the source changes between two pages.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int LOAD_CHUNK = 1_000;
+
+    // Títulos y autores se comparan en minúsculas, como el ORDER BY LOWER(...) de la consulta de respaldo
+    private static final Map<String, Comparator<Entry>> SORTS = Map.of(
+            "id", Comparator.comparing((Entry e) -> e.book().id()),
+            "title", Comparator.comparing(Entry::title),
+            "author", Comparator.comparing(Entry::author),
+            "isbn", Comparator.comparing((Entry e) -> e.book().isbn()),
+            "publicationYear", Comparator.comparing((Entry e) -> e.book().publicationYear()),
+            "status", Comparator.comparing((Entry e) -> e.book().status().name()),
+            "createdAt", Comparator.comparing((Entry e) -> e.book().createdAt(), Comparator.nullsLast(Comparator.naturalOrder()))
+    );
+
+    private final BookRepository bookRepository;
+
+    /**
+     * Database sort equivalent to the index ordering: title and author ignoring case, ties broken by
+     * ascending id whatever the direction.
+     */
+    public static Sort sortOf(String sortBy, String direction) {
+        Sort.Order order = "DESC".equalsIgnoreCase(direction) ? Sort.Order.desc(sortBy) : Sort.Order.asc(sortBy);
+        if ("title".equals(sortBy) || "author".equals(sortBy)) {
+            order = order.ignoreCase();
+        }
+        return "id".equals(sortBy) ? Sort.by(order) : Sort.by(order, Sort.Order.asc("id"));
+    }
+
+    @Value("${library.search.index.enabled:true}")
+    private boolean enabled = true;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<BookChangedEvent> pending = new ArrayList<>();
+    private Map<Long, Entry> entries = new HashMap<>();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    private volatile boolean ready;
+
+    public record Hits(List<Long> ids, long total) {}
+
+    private record Entry(BookResponse book, String title, String author) {
+
+        static Entry of(BookResponse book) {
+            return new Entry(book, normalize(book.title()), normalize(book.author()));
+        }
+
+        boolean contains(String keyword) {
+            return title.contains(keyword) || author.contains(keyword);
+        }
+
+        boolean hasWordStartingWith(String keyword) {
+            return (' ' + title).contains(' ' + keyword) || (' ' + author).contains(' ' + keyword);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Long, Entry> loadedEntries = new HashMap<>();
+        Map<String, Set<Long>> loadedPostings = new HashMap<>();
+
+        long lastId = 0;
+        List<Book> chunk;
+        do {
+            chunk = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_CHUNK));
+            for (Book book : chunk) {
+                Entry entry = Entry.of(BookResponse.from(book));
+                loadedEntries.put(book.getId(), entry);
+                addPostings(loadedPostings, entry);
+                lastId = book.getId();
+            }
+        } while (chunk.size() == LOAD_CHUNK);
+
+        lock.writeLock().lock();
+        try {
+            entries = loadedEntries;
+            postings = loadedPostings;
+            pending.forEach(this::apply);
+            pending.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Book search index loaded {} books ({} grams) in {} ms",
+                loadedEntries.size(), loadedPostings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(event);
+            } else {
+                pending.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves one page of matching book ids.
+     *
+     * @param prefix when true, matches books whose title or author has a word starting with the keyword;
+     *               otherwise matches the keyword anywhere, like the repository query does
+     * @return empty when the index cannot answer the query (not loaded yet, unsupported sort
+     * property or a keyword containing SQL wildcards) and the caller should use the database
+     */
+    public Optional<Hits> search(String keyword, boolean prefix, int page, int size, String sortBy, String direction) {
+        Comparator<Entry> sort = SORTS.get(sortBy);
+        if (!ready || sort == null || keyword.indexOf('%') >= 0 || keyword.indexOf('_') >= 0) {
+            return Optional.empty();
+        }
+        if ("DESC".equalsIgnoreCase(direction)) {
+            sort = sort.reversed();
+        }
+        sort = sort.thenComparing(e -> e.book().id());
+
+        String normalized = normalize(keyword);
+        List<Entry> matches;
+
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            matches = prefix ? findByWordPrefix(normalized) : findContaining(normalized);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(sort);
+        int from = (int) Math.min((long) page * size, matches.size());
+        int to = Math.min(from + size, matches.size());
+        List<Long> ids = matches.subList(from, to).stream()
+                .map(e -> e.book().id())
+                .toList();
+
+        return Optional.of(new Hits(ids, matches.size()));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private List<Entry> findContaining(String keyword) {
+        List<Entry> matches = new ArrayList<>();
+        for (Long id : candidates(keyword)) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.contains(keyword)) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    private List<Entry> findByWordPrefix(String keyword) {
+        List<Entry> matches = new ArrayList<>();
+        // Los grams del texto se calculan con un espacio inicial, así " kw" también sirve de filtro
+        for (Long id : candidates(' ' + keyword)) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.hasWordStartingWith(keyword)) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Intersects the posting lists of every gram in the term, starting from the rarest one.
+     * Terms shorter than a gram cannot use the postings and fall back to every indexed book.
+     */
+    private Collection<Long> candidates(String term) {
+        if (term.length() < GRAM) {
+            return entries.keySet();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(term)) {
+            Set<Long> list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> result = new ArrayList<>();
+        Set<Long> smallest = lists.get(0);
+        for (Long id : smallest) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private void apply(BookChangedEvent event) {
+        Entry previous = entries.remove(event.bookId());
+        if (previous != null) {
+            removePostings(previous);
+        }
+        if (!event.isDeleted()) {
+            Entry entry = Entry.of(event.after());
+            entries.put(entry.book().id(), entry);
+            addPostings(postings, entry);
+        }
+    }
+
+    private static void addPostings(Map<String, Set<Long>> target, Entry entry) {
+        for (String gram : entryGrams(entry)) {
+            target.computeIfAbsent(gram, g -> new HashSet<>()).add(entry.book().id());
+        }
+    }
+
+    private void removePostings(Entry entry) {
+        for (String gram : entryGrams(entry)) {
+            Set<Long> list = postings.get(gram);
+            if (list != null) {
+                list.remove(entry.book().id());
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> entryGrams(Entry entry) {
+        Set<String> grams = grams(' ' + entry.title());
+        grams.addAll(grams(' ' + entry.author()));
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
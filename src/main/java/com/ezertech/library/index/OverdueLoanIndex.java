@@ -0,0 +1,195 @@
+package com.ezertech.library.index;
+
+import com.ezertech.library.event.LoanChangedEvent;
+import com.ezertech.library.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory view of open loans bucketed by due date.
+ * <p>
+ * Open loans wait in a per-day bucket until their due date has passed; a sweep right after midnight
+ * moves every expired bucket into the overdue set in one batch. Counting overdue loans is O(1) and
+ * listing them only walks the overdue set, instead of filtering the whole {@code loans} table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OverdueLoanIndex {
+
+    private final LoanRepository loanRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<LoanChangedEvent> pending = new ArrayList<>();
+    private final NavigableMap<LocalDate, NavigableSet<Long>> dueBuckets = new TreeMap<>();
+    private final NavigableMap<LocalDate, NavigableSet<Long>> overdueBuckets = new TreeMap<>();
+    private final Map<Long, LocalDate> dueDates = new HashMap<>();
+    private int overdueCount;
+    private volatile boolean ready;
+
+    public record Hits(List<Long> ids, long total) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<LoanRepository.DueDateView> open = loanRepository.findOpenLoanDueDates();
+        LocalDate today = LocalDate.now();
+
+        lock.writeLock().lock();
+        try {
+            dueBuckets.clear();
+            overdueBuckets.clear();
+            dueDates.clear();
+            overdueCount = 0;
+            open.forEach(loan -> add(loan.getId(), loan.getDueDate(), today));
+            pending.forEach(event -> apply(event, today));
+            pending.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Overdue index loaded {} open loans, {} overdue", open.size(), overdueCount);
+    }
+
+    /**
+     * Moves every bucket whose due date is already past into the overdue set.
+     */
+    @Scheduled(cron = "${library.loans.overdue-sweep-cron:0 0 0 * * *}")
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        int moved = 0;
+
+        lock.writeLock().lock();
+        try {
+            NavigableMap<LocalDate, NavigableSet<Long>> expired = dueBuckets.headMap(today, false);
+            for (Map.Entry<LocalDate, NavigableSet<Long>> bucket : expired.entrySet()) {
+                overdueBuckets.computeIfAbsent(bucket.getKey(), d -> new TreeSet<>()).addAll(bucket.getValue());
+                moved += bucket.getValue().size();
+            }
+            expired.clear();
+            overdueCount += moved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Overdue sweep moved {} loans, {} overdue in total", moved, overdueCount);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanChanged(LoanChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(event, LocalDate.now());
+            } else {
+                pending.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return empty while the index is still loading
+     */
+    public OptionalLong overdueCount() {
+        if (!ready) {
+            return OptionalLong.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return OptionalLong.of(overdueCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of overdue loan ids, oldest due date first.
+     *
+     * @return empty while the index is still loading
+     */
+    public Optional<Hits> overdue(int page, int size) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        long skip = (long) page * size;
+        List<Long> ids = new ArrayList<>(size);
+
+        lock.readLock().lock();
+        try {
+            for (NavigableSet<Long> bucket : overdueBuckets.values()) {
+                if (skip >= bucket.size()) {
+                    skip -= bucket.size();
+                    continue;
+                }
+                for (Long id : bucket) {
+                    if (skip > 0) {
+                        skip--;
+                    } else if (ids.size() < size) {
+                        ids.add(id);
+                    } else {
+                        break;
+                    }
+                }
+                if (ids.size() == size) {
+                    break;
+                }
+            }
+            return Optional.of(new Hits(ids, overdueCount));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(LoanChangedEvent event, LocalDate today) {
+        if (event.isOpened()) {
+            add(event.loanId(), event.after().dueDate(), today);
+        } else if (event.isClosed()) {
+            remove(event.loanId());
+        }
+    }
+
+    private void add(Long id, LocalDate dueDate, LocalDate today) {
+        if (dueDates.put(id, dueDate) != null) {
+            return;
+        }
+        if (dueDate.isBefore(today)) {
+            overdueBuckets.computeIfAbsent(dueDate, d -> new TreeSet<>()).add(id);
+            overdueCount++;
+        } else {
+            dueBuckets.computeIfAbsent(dueDate, d -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        LocalDate dueDate = dueDates.remove(id);
+        if (dueDate == null) {
+            return;
+        }
+        if (removeFrom(overdueBuckets, dueDate, id)) {
+            overdueCount--;
+        } else {
+            removeFrom(dueBuckets, dueDate, id);
+        }
+    }
+
+    private static boolean removeFrom(NavigableMap<LocalDate, NavigableSet<Long>> buckets, LocalDate dueDate, Long id) {
+        NavigableSet<Long> bucket = buckets.get(dueDate);
+        if (bucket == null || !bucket.remove(id)) {
+            return false;
+        }
+        if (bucket.isEmpty()) {
+            buckets.remove(dueDate);
+        }
+        return true;
+    }
+}
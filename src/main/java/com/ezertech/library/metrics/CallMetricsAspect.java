@@ -0,0 +1,66 @@
+package com.ezertech.library.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call into a service or repository bean.
+ * <p>
+ * Each call is recorded in the {@value #CALLS} timer, tagged with the component interface
+ * ({@code ITBookService}, {@code LoanRepository}...), the method and the exception thrown, or
+ * {@code none}. Failed calls also increment {@value #ERRORS}, so error rates per exception type
+ * ({@code BookNotFoundException}, {@code BookNotAvailableException}...) can be read without
+ * going through the timer.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class CallMetricsAspect {
+
+    public static final String CALLS = "library.calls";
+    public static final String ERRORS = "library.call.errors";
+
+    private static final String BASE_PACKAGE = "com.ezertech.library";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("bean(*ServiceImpl) || bean(*Repository)")
+    public Object record(ProceedingJoinPoint call) throws Throwable {
+        String component = component(call.getTarget());
+        String method = call.getSignature().getName();
+        String exception = "none";
+        long start = System.nanoTime();
+        try {
+            return call.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            meterRegistry.counter(ERRORS, "component", component, "method", method, "exception", exception)
+                    .increment();
+            throw ex;
+        } finally {
+            Timer.builder(CALLS)
+                    .tags("component", component, "method", method, "exception", exception)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Los repositorios son proxies JDK: el nombre útil es la interfaz propia, no la clase del proxy
+    static String component(Object target) {
+        Class<?> type = ClassUtils.getUserClass(target);
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+            if (candidate.getPackageName().startsWith(BASE_PACKAGE)) {
+                return candidate.getSimpleName();
+            }
+        }
+        return type.getSimpleName();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ezertech.library.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Per-thread tally of the SQL executed through the proxied {@code DataSource}.
+ * <p>
+ * Code opens a {@link Scope}, runs, and reads how many statements were executed, how many rows they
+ * read or changed and how long the database took. Scopes nest: every statement counts towards all the
+ * scopes open on the thread, so a test can measure a request that {@link QueryStatsInterceptor} is
+ * measuring too.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Deque<Scope>> OPEN = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static Scope open() {
+        Deque<Scope> open = OPEN.get();
+        if (open == null) {
+            open = new ArrayDeque<>();
+            OPEN.set(open);
+        }
+        Scope scope = new Scope();
+        open.push(scope);
+        return scope;
+    }
+
+    static void recordStatement(long elapsedMillis, long affectedRows) {
+        Deque<Scope> open = OPEN.get();
+        if (open != null) {
+            for (Scope scope : open) {
+                scope.statements++;
+                scope.rows += affectedRows;
+                scope.elapsedMillis += elapsedMillis;
+            }
+        }
+    }
+
+    static void recordRowRead() {
+        Deque<Scope> open = OPEN.get();
+        if (open != null) {
+            for (Scope scope : open) {
+                scope.rows++;
+            }
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private long statements;
+        private long rows;
+        private long elapsedMillis;
+
+        private Scope() {
+        }
+
+        public long statements() {
+            return statements;
+        }
+
+        /** Rows read through result sets plus rows reported by inserts, updates and deletes. */
+        public long rows() {
+            return rows;
+        }
+
+        /** Time spent executing statements, as measured around each JDBC execute call. */
+        public long elapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public void close() {
+            Deque<Scope> open = OPEN.get();
+            if (open != null) {
+                open.remove(this);
+                if (open.isEmpty()) {
+                    OPEN.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ezertech.library.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * datasource-proxy listener feeding {@link QueryCounter}: one statement per JDBC execute call (a batch
+ * counts once), the rows it reports as affected, and every {@link ResultSet#next()} that returns a row.
+ */
+public class QueryCountingListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryCounter.recordStatement(execInfo.getElapsedTime(), affectedRows(execInfo.getResult()));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            QueryCounter.recordRowRead();
+        }
+    }
+
+    // executeUpdate devuelve int/long, executeBatch un array; las consultas se cuentan fila a fila en next()
+    static long affectedRows(Object result) {
+        return switch (result) {
+            case Integer count -> Math.max(count, 0);
+            case Long count -> Math.max(count, 0);
+            case int[] counts -> {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(count, 0);
+                }
+                yield total;
+            }
+            case long[] counts -> {
+                long total = 0;
+                for (long count : counts) {
+                    total += Math.max(count, 0);
+                }
+                yield total;
+            }
+            case null, default -> 0;
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.ezertech.library.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the SQL behind each request, view rendering included: statements, rows and database time
+ * go to the {@value #STATEMENTS}, {@value #ROWS} and {@value #TIME} meters, tagged with the HTTP method
+ * and the matched URI pattern.
+ * <p>
+ * A request issuing more statements than the budget is logged as a warning; that is usually a page
+ * loading an association once per row.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryStatsInterceptor implements HandlerInterceptor {
+
+    public static final String STATEMENTS = "library.http.db.statements";
+    public static final String ROWS = "library.http.db.rows";
+    public static final String TIME = "library.http.db.time";
+
+    private static final String SCOPE_ATTRIBUTE = QueryStatsInterceptor.class.getName() + ".scope";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final int statementBudget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(SCOPE_ATTRIBUTE, QueryCounter.open());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(SCOPE_ATTRIBUTE) instanceof QueryCounter.Scope scope)) {
+            return;
+        }
+        scope.close();
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        if (statementBudget > 0 && scope.statements() > statementBudget) {
+            log.warn("{} {} issued {} SQL statements (budget {}), {} rows, {} ms in the database",
+                    request.getMethod(), request.getRequestURI(), scope.statements(), statementBudget,
+                    scope.rows(), scope.elapsedMillis());
+        }
+
+        meterRegistry.ifAvailable(meters -> {
+            DistributionSummary.builder(STATEMENTS)
+                    .baseUnit("statements")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meters)
+                    .record(scope.statements());
+            DistributionSummary.builder(ROWS)
+                    .baseUnit("rows")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meters)
+                    .record(scope.rows());
+            Timer.builder(TIME)
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meters)
+                    .record(scope.elapsedMillis(), TimeUnit.MILLISECONDS);
+        });
+    }
+}
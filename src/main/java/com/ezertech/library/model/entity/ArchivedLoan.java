@@ -0,0 +1,49 @@
+package com.ezertech.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A returned loan moved out of {@code loans} by the archival job. It keeps the original id, so a
+ * loan can be told apart across both tables, and is read only by history queries that ask for it.
+ */
+@Entity
+@Table(name = "loans_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedLoan {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "book_id", nullable = false)
+    private Book book;
+
+    @Column(name = "borrower_name", nullable = false, length = 100)
+    private String borrowerName;
+
+    @Column(name = "borrower_email", nullable = false, length = 150)
+    private String borrowerEmail;
+
+    @Column(name = "loan_date", nullable = false)
+    private LocalDate loanDate;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "return_date", nullable = false)
+    private LocalDate returnDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -16,8 +16,10 @@ import java.time.LocalDateTime;
 @Builder
 public class Book {
 
+    // Secuencia con optimizador pooled: Hibernate reserva 50 ids por llamada y puede agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_id_seq")
+    @SequenceGenerator(name = "books_id_seq", sequenceName = "books_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -45,6 +47,11 @@ public class Book {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Bloqueo optimista; también es la base del ETag de cada libro
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     private void onCreate() {
         this.createdAt = LocalDateTime.now();
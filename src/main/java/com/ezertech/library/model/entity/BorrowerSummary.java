@@ -0,0 +1,35 @@
+package com.ezertech.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Running loan counters of one borrower, keyed by email. Loans update it in the same transaction
+ * as the loan itself, so reading a borrower's totals never aggregates the {@code loans} table.
+ */
+@Entity
+@Table(name = "borrower_summaries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BorrowerSummary {
+
+    @Id
+    @Column(name = "borrower_email", length = 150)
+    private String borrowerEmail;
+
+    // Nombre del último préstamo: el email es lo que identifica al lector
+    @Column(name = "borrower_name", nullable = false, length = 100)
+    private String borrowerName;
+
+    @Column(name = "active_loans", nullable = false)
+    private int activeLoans;
+
+    @Column(name = "overdue_loans", nullable = false)
+    private int overdueLoans;
+
+    @Column(name = "lifetime_loans", nullable = false)
+    private long lifetimeLoans;
+}
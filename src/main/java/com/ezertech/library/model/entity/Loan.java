@@ -7,6 +7,7 @@ import lombok.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
 @Table(name = "loans")
@@ -17,6 +18,9 @@ import java.time.LocalDateTime;
 @Builder
 public class Loan {
 
+    /** Separa los campos de {@code searchText}: una búsqueda no puede coincidir a caballo entre dos. */
+    public static final String SEARCH_TEXT_SEPARATOR = "\n";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -45,6 +49,10 @@ public class Loan {
     @Column(name = "return_date")
     private LocalDate returnDate;
 
+    // Nombre, email y título del libro en minúsculas; lo que filtra la búsqueda por palabra clave
+    @Column(name = "search_text", nullable = false, length = 402)
+    private String searchText;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -56,4 +64,17 @@ public class Loan {
             this.dueDate = this.loanDate.plusDays(14);
         }
     }
+
+    /**
+     * Recomputes {@code searchText} from the borrower and the given book title. Loans only read the
+     * title of their book, so the caller passes it and a lazy book is not loaded just for this.
+     */
+    public void refreshSearchText(String bookTitle) {
+        this.searchText = searchTextOf(borrowerName, borrowerEmail, bookTitle);
+    }
+
+    public static String searchTextOf(String borrowerName, String borrowerEmail, String bookTitle) {
+        return String.join(SEARCH_TEXT_SEPARATOR, borrowerName, borrowerEmail, bookTitle)
+                .toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,45 @@
+package com.ezertech.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Loans of one book opened and returned on one day. The book is kept as a plain id: rollups are
+ * never navigated, only summed.
+ */
+@Entity
+@Table(name = "loan_stats_daily_book")
+@IdClass(LoanDailyBookStats.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanDailyBookStats {
+
+    @Id
+    @Column(name = "stats_date")
+    private LocalDate statsDate;
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "loans_opened", nullable = false)
+    private int loansOpened;
+
+    @Column(name = "loans_returned", nullable = false)
+    private int loansReturned;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate statsDate;
+        private Long bookId;
+    }
+}
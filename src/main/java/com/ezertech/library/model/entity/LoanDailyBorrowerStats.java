@@ -0,0 +1,44 @@
+package com.ezertech.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Loans of one borrower opened and returned on one day.
+ */
+@Entity
+@Table(name = "loan_stats_daily_borrower")
+@IdClass(LoanDailyBorrowerStats.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanDailyBorrowerStats {
+
+    @Id
+    @Column(name = "stats_date")
+    private LocalDate statsDate;
+
+    @Id
+    @Column(name = "borrower_email", length = 150)
+    private String borrowerEmail;
+
+    @Column(name = "loans_opened", nullable = false)
+    private int loansOpened;
+
+    @Column(name = "loans_returned", nullable = false)
+    private int loansReturned;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate statsDate;
+        private String borrowerEmail;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ezertech.library.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Loans opened and returned on one day across the whole library, kept up to date by the loan writes.
+ */
+@Entity
+@Table(name = "loan_stats_daily")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanDailyStats {
+
+    @Id
+    @Column(name = "stats_date")
+    private LocalDate statsDate;
+
+    @Column(name = "loans_opened", nullable = false)
+    private int loansOpened;
+
+    @Column(name = "loans_returned", nullable = false)
+    private int loansReturned;
+}
@@ -0,0 +1,149 @@
+package com.ezertech.library.pagination;
+
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.exception.InvalidCursorException;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Helpers for keyset ("seek") pagination over JPA specifications.
+ * <p>
+ * Instead of {@code OFFSET n}, each page filters on {@code (sortKey, id)} being past the previous page's
+ * last row and reads {@code size + 1} rows to know whether another page follows, so every page costs the
+ * same no matter how deep the client goes. Only non-null sort properties can be used.
+ */
+public final class Keyset {
+
+    private Keyset() {
+    }
+
+    /**
+     * Decodes the client token, checking it was issued for the same sort; an empty token means the first page.
+     */
+    public static KeysetCursor resolve(String token, int size, String sortBy, String direction, Set<String> sortable) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        if (!sortable.contains(sortBy)) {
+            throw new InvalidCursorException("Cursor pagination is not supported when sorting by: " + sortBy);
+        }
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        KeysetCursor cursor = KeysetCursor.decode(token);
+        if (!cursor.sortBy().equals(sortBy) || cursor.descending() != isDescending(direction)) {
+            throw new InvalidCursorException("Cursor was issued for a different sort");
+        }
+        return cursor;
+    }
+
+    public static boolean isDescending(String direction) {
+        return "DESC".equalsIgnoreCase(direction);
+    }
+
+    public static Sort sort(String sortBy, boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return "id".equals(sortBy)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Restricts the query to rows strictly after the cursor in {@code (sortBy, id)} order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Specification<T> after(KeysetCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return cb.conjunction();
+            }
+            Path<Comparable> key = root.get(cursor.sortBy());
+            Path<Long> id = root.get("id");
+            Comparable value = convert(cursor.value(), key.getJavaType());
+
+            Predicate pastKey = cursor.descending() ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+            Predicate pastId = cursor.descending() ? cb.lessThan(id, cursor.id()) : cb.greaterThan(id, cursor.id());
+            return cb.or(pastKey, cb.and(cb.equal(key, value), pastId));
+        };
+    }
+
+    /**
+     * Builds the response from the {@code size + 1} rows read for a page.
+     */
+    public static <E, R> PageResponse<R> page(List<E> rows, int size, String sortBy, boolean descending,
+                                              Function<E, R> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? KeysetCursor.of(content.get(content.size() - 1), sortBy, descending).encode()
+                : null;
+
+        return PageResponse.keyset(content.stream().map(mapper).toList(), size, nextCursor);
+    }
+
+    /**
+     * Merges two result lists, each already in {@code (sortBy, id)} order, into the first {@code limit}
+     * rows of their union: the keyset page over two tables read with the same cursor. A row moved from
+     * one table to the other between the two reads shows up in both; it is kept once, as the row from
+     * {@code second}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <E> List<E> merge(List<? extends E> first, List<? extends E> second, String sortBy,
+                                    boolean descending, int limit) {
+        Map<Long, E> byId = new HashMap<>();
+        first.forEach(row -> byId.put((Long) property(row, "id"), row));
+        second.forEach(row -> byId.put((Long) property(row, "id"), row));
+
+        Comparator<E> order = Comparator
+                .comparing((E row) -> (Comparable) property(row, sortBy))
+                .thenComparing(row -> (Long) property(row, "id"));
+        return byId.values().stream()
+                .sorted(descending ? order.reversed() : order)
+                .limit(limit)
+                .toList();
+    }
+
+    private static Object property(Object row, String name) {
+        return PropertyAccessorFactory.forBeanPropertyAccess(row).getPropertyValue(name);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable convert(String value, Class<?> type) {
+        try {
+            if (type == String.class) {
+                return value;
+            }
+            if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<Enum>) type, value);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        throw new InvalidCursorException("Unsupported cursor property type: " + type.getSimpleName());
+    }
+}
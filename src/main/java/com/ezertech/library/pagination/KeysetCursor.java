@@ -0,0 +1,51 @@
+package com.ezertech.library.pagination;
+
+import com.ezertech.library.exception.InvalidCursorException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: the sort property, its value on that row and the row id,
+ * which breaks ties between rows sharing the same sort value.
+ * Clients only see it as an opaque base64url token.
+ */
+public record KeysetCursor(
+        String sortBy,
+        boolean descending,
+        String value,
+        Long id
+) {
+
+    private static final String SEPARATOR = "\u0000";
+
+    public static KeysetCursor of(Object row, String sortBy, boolean descending) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        return new KeysetCursor(
+                sortBy,
+                descending,
+                String.valueOf(wrapper.getPropertyValue(sortBy)),
+                (Long) wrapper.getPropertyValue("id")
+        );
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, descending ? "DESC" : "ASC", String.valueOf(id), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return new KeysetCursor(parts[0], "DESC".equals(parts[1]), parts[3], Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ezertech.library.reporting;
+
+import com.ezertech.library.repository.LoanDailyBookStatsRepository;
+import com.ezertech.library.repository.LoanDailyBorrowerStatsRepository;
+import com.ezertech.library.repository.LoanDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Incremental writes to the daily loan rollups (overall, per book and per borrower), meant to be
+ * called inside the transaction that opens or returns the loan so the counters commit or roll back
+ * with it.
+ * <p>
+ * Each counter is a single UPDATE. Only the first loan of a day, book or borrower finds no row, and
+ * then an {@code INSERT ... ON CONFLICT DO NOTHING} creates it before the UPDATE is retried. That is
+ * safe when two transactions race for the same new row. Callers should record activity last, so the
+ * lock on the day's shared row is held as briefly as possible.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanActivityRollups {
+
+    private final LoanDailyStatsRepository dailyStats;
+    private final LoanDailyBookStatsRepository bookStats;
+    private final LoanDailyBorrowerStatsRepository borrowerStats;
+
+    public void recordOpened(LocalDate day, Long bookId, String borrowerEmail) {
+        record(day, bookId, borrowerEmail, 1, 0);
+    }
+
+    public void recordReturned(LocalDate day, Long bookId, String borrowerEmail) {
+        record(day, bookId, borrowerEmail, 0, 1);
+    }
+
+    private void record(LocalDate day, Long bookId, String borrowerEmail, int opened, int returned) {
+        if (dailyStats.increment(day, opened, returned) == 0) {
+            dailyStats.insertIfAbsent(day);
+            dailyStats.increment(day, opened, returned);
+        }
+        if (bookStats.increment(day, bookId, opened, returned) == 0) {
+            bookStats.insertIfAbsent(day, bookId);
+            bookStats.increment(day, bookId, opened, returned);
+        }
+        if (borrowerStats.increment(day, borrowerEmail, opened, returned) == 0) {
+            borrowerStats.insertIfAbsent(day, borrowerEmail);
+            borrowerStats.increment(day, borrowerEmail, opened, returned);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ezertech.library.repository;
+
+import com.ezertech.library.model.entity.ArchivedLoan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface ArchivedLoanRepository extends JpaRepository<ArchivedLoan, Long>, JpaSpecificationExecutor<ArchivedLoan> {
+
+    boolean existsByBookId(Long bookId);
+
+    @Query("SELECT MIN(l.loanDate) FROM ArchivedLoan l")
+    LocalDate findFirstLoanDate();
+
+    // Copia en el archivo los préstamos devueltos de la tanda; el borrado de loans va en la misma transacción
+    @Modifying
+    @Query(value = """
+        INSERT INTO loans_archive (id, book_id, borrower_name, borrower_email, loan_date, due_date,
+                                   return_date, created_at, archived_at)
+        SELECT id, book_id, borrower_name, borrower_email, loan_date, due_date,
+               return_date, created_at, CURRENT_TIMESTAMP
+        FROM loans
+        WHERE id IN (:ids)
+        AND return_date IS NOT NULL
+    """, nativeQuery = true)
+    int copyReturnedLoans(@Param("ids") Collection<Long> ids);
+}
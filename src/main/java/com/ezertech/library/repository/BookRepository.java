@@ -1,30 +1,122 @@
 package com.ezertech.library.repository;
 
+import com.ezertech.library.dto.response.BookResponse;
 import com.ezertech.library.model.entity.Book;
 import com.ezertech.library.model.enums.BookStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
 
     Optional<Book> findByIsbn(String isbn);
 
-    List<Book> findByStatus(BookStatus status);
-
     boolean existsByIsbn(String isbn);
 
-    @Query("""
-        SELECT b FROM Book b
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    // Las lecturas seleccionan BookResponse directamente: sin entidades gestionadas ni snapshots de dirty checking
+    String SELECT_RESPONSE = """
+        SELECT new com.ezertech.library.dto.response.BookResponse(
+            b.id, b.title, b.author, b.isbn, b.publicationYear, b.status, b.createdAt, b.version)
+        FROM Book b
+        """;
+
+    String KEYWORD_FILTER = """
         WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
            OR LOWER(b.author) LIKE LOWER(CONCAT('%', :keyword, '%'))
-    """)
-    Page<Book> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+        """;
+
+    String WORD_PREFIX_FILTER = """
+        WHERE LOWER(b.title) LIKE LOWER(CONCAT(:keyword, '%'))
+           OR LOWER(b.title) LIKE LOWER(CONCAT('% ', :keyword, '%'))
+           OR LOWER(b.author) LIKE LOWER(CONCAT(:keyword, '%'))
+           OR LOWER(b.author) LIKE LOWER(CONCAT('% ', :keyword, '%'))
+        """;
+
+    @Query(SELECT_RESPONSE + "WHERE b.id = :id")
+    Optional<BookResponse> findResponseById(@Param("id") Long id);
+
+    @Query(SELECT_RESPONSE + "WHERE b.isbn = :isbn")
+    Optional<BookResponse> findResponseByIsbn(@Param("isbn") String isbn);
+
+    @Query(SELECT_RESPONSE + "WHERE b.id IN :ids")
+    List<BookResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_RESPONSE)
+    List<BookResponse> findAllResponses();
+
+    @Query(value = SELECT_RESPONSE, countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookResponse> findAllResponses(Pageable pageable);
+
+    @Query(value = SELECT_RESPONSE + KEYWORD_FILTER, countQuery = "SELECT COUNT(b) FROM Book b " + KEYWORD_FILTER)
+    Page<BookResponse> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(value = SELECT_RESPONSE + WORD_PREFIX_FILTER, countQuery = "SELECT COUNT(b) FROM Book b " + WORD_PREFIX_FILTER)
+    Page<BookResponse> searchByWordPrefix(@Param("keyword") String keyword, Pageable pageable);
+
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Respaldo del typeahead mientras AvailableBookIndex carga
+    @Query(SELECT_RESPONSE + """
+        WHERE b.status = :status
+          AND (LOWER(b.title) LIKE CONCAT(:prefix, '%')
+            OR LOWER(b.title) LIKE CONCAT('% ', :prefix, '%')
+            OR LOWER(b.author) LIKE CONCAT(:prefix, '%')
+            OR LOWER(b.author) LIKE CONCAT('% ', :prefix, '%')
+            OR b.isbn LIKE CONCAT(:prefix, '%'))
+        ORDER BY b.title, b.id
+        """)
+    List<BookResponse> suggestByPrefix(@Param("status") BookStatus status, @Param("prefix") String prefix, Limit limit);
+
+    // Variantes Slice: leen size + 1 filas para saber si hay más, sin el COUNT(*) de Page
+    @Query(SELECT_RESPONSE)
+    Slice<BookResponse> sliceAll(Pageable pageable);
+
+    @Query(SELECT_RESPONSE + KEYWORD_FILTER)
+    Slice<BookResponse> sliceByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(SELECT_RESPONSE + WORD_PREFIX_FILTER)
+    Slice<BookResponse> sliceByWordPrefix(@Param("keyword") String keyword, Pageable pageable);
 
     long countByStatus(BookStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Compare-and-set on the status column: the database row lock taken by the UPDATE serializes
+     * concurrent callers, and the affected row count tells the caller whether it won.
+     *
+     * @return 1 if the status was {@code expected} and is now {@code target}, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Book b SET b.status = :target, b.version = b.version + 1 WHERE b.id = :id AND b.status = :expected")
+    int updateStatusIf(@Param("id") Long id,
+                       @Param("expected") BookStatus expected,
+                       @Param("target") BookStatus target);
+
+    /**
+     * Forward-only cursor over the whole catalog for exports. Must be consumed and closed inside a
+     * transaction, otherwise the PostgreSQL driver ignores the fetch size and buffers every row.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAllByOrderByIdAsc();
+}
@@ -0,0 +1,40 @@
+package com.ezertech.library.repository;
+
+import com.ezertech.library.dto.request.SearchRequest;
+import com.ezertech.library.model.entity.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Criteria equivalents of the {@link BookRepository} keyword queries, for the keyset search path.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> matching(SearchRequest request) {
+        return (root, query, cb) -> {
+            if (request == null || !request.hasKeyword()) {
+                return cb.conjunction();
+            }
+            String keyword = request.keyword().toLowerCase(Locale.ROOT);
+            var title = cb.lower(root.get("title"));
+            var author = cb.lower(root.get("author"));
+
+            if (request.prefix()) {
+                return cb.or(
+                        cb.like(title, keyword + "%"),
+                        cb.like(title, "% " + keyword + "%"),
+                        cb.like(author, keyword + "%"),
+                        cb.like(author, "% " + keyword + "%")
+                );
+            }
+            return cb.or(
+                    cb.like(title, "%" + keyword + "%"),
+                    cb.like(author, "%" + keyword + "%")
+            );
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.ezertech.library.repository;
+
+import com.ezertech.library.model.entity.BorrowerSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+/**
+ * Incremental updates of {@link BorrowerSummary}. Every counter changes with a single UPDATE whose row
+ * lock serializes concurrent loans of the same borrower, instead of a read-modify-write in memory.
+ */
+public interface BorrowerSummaryRepository extends JpaRepository<BorrowerSummary, String> {
+
+    // Primer préstamo del lector: crea la fila a cero; si otra transacción se adelantó no hace nada
+    @Modifying
+    @Query(value = """
+        INSERT INTO borrower_summaries (borrower_email, borrower_name, active_loans, overdue_loans, lifetime_loans)
+        VALUES (:email, :name, 0, 0, 0)
+        ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("email") String email, @Param("name") String name);
+
+    @Modifying
+    @Query("""
+        UPDATE BorrowerSummary s
+        SET s.activeLoans = s.activeLoans + 1,
+            s.lifetimeLoans = s.lifetimeLoans + 1,
+            s.borrowerName = :name
+        WHERE s.borrowerEmail = :email
+    """)
+    int recordLoanOpened(@Param("email") String email, @Param("name") String name);
+
+    /**
+     * @param overdue 1 if the returned loan was already past its due date (and so counted as overdue), else 0
+     */
+    @Modifying
+    @Query("""
+        UPDATE BorrowerSummary s
+        SET s.activeLoans = s.activeLoans - 1,
+            s.overdueLoans = s.overdueLoans - :overdue
+        WHERE s.borrowerEmail = :email
+    """)
+    int recordLoanClosed(@Param("email") String email, @Param("overdue") int overdue);
+
+    /**
+     * Recounts the overdue loans of every borrower who has or had some, from the open loans only.
+     * Loans become overdue by the passing of time rather than by a write, so this runs once a day.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE borrower_summaries s
+        SET overdue_loans = (
+            SELECT COUNT(*) FROM loans l
+            WHERE l.borrower_email = s.borrower_email
+            AND l.return_date IS NULL
+            AND l.due_date < :today
+        )
+        WHERE s.overdue_loans > 0
+        OR s.borrower_email IN (
+            SELECT l.borrower_email FROM loans l
+            WHERE l.return_date IS NULL
+            AND l.due_date < :today
+        )
+    """, nativeQuery = true)
+    int refreshOverdue(@Param("today") LocalDate today);
+}
@@ -0,0 +1,70 @@
+package com.ezertech.library.repository;
+
+import com.ezertech.library.dto.response.TopBookResponse;
+import com.ezertech.library.model.entity.LoanDailyBookStats;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LoanDailyBookStatsRepository extends JpaRepository<LoanDailyBookStats, LoanDailyBookStats.Key> {
+
+    // Suma las filas diarias del rango; solo el título se lee de books, por clave primaria
+    @Query("""
+        SELECT new com.ezertech.library.dto.response.TopBookResponse(s.bookId, b.title, SUM(s.loansOpened))
+        FROM LoanDailyBookStats s JOIN Book b ON b.id = s.bookId
+        WHERE s.statsDate BETWEEN :from AND :to
+        GROUP BY s.bookId, b.title
+        HAVING SUM(s.loansOpened) > 0
+        ORDER BY SUM(s.loansOpened) DESC, s.bookId
+    """)
+    List<TopBookResponse> findTopBooks(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    @Modifying
+    @Query("""
+        UPDATE LoanDailyBookStats s
+        SET s.loansOpened = s.loansOpened + :opened,
+            s.loansReturned = s.loansReturned + :returned
+        WHERE s.statsDate = :day
+        AND s.bookId = :bookId
+    """)
+    int increment(@Param("day") LocalDate day, @Param("bookId") Long bookId,
+                  @Param("opened") int opened, @Param("returned") int returned);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO loan_stats_daily_book (stats_date, book_id, loans_opened, loans_returned)
+        VALUES (:day, :bookId, 0, 0)
+        ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("day") LocalDate day, @Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("DELETE FROM LoanDailyBookStats s WHERE s.statsDate BETWEEN :from AND :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO loan_stats_daily_book (stats_date, book_id, loans_opened, loans_returned)
+        SELECT stats_date, book_id, SUM(opened), SUM(returned)
+        FROM (
+            SELECT loan_date AS stats_date, book_id, 1 AS opened, 0 AS returned FROM loans
+            WHERE loan_date BETWEEN :from AND :to
+            UNION ALL
+            SELECT return_date, book_id, 0, 1 FROM loans
+            WHERE return_date BETWEEN :from AND :to
+            UNION ALL
+            SELECT loan_date, book_id, 1, 0 FROM loans_archive
+            WHERE loan_date BETWEEN :from AND :to
+            UNION ALL
+            SELECT return_date, book_id, 0, 1 FROM loans_archive
+            WHERE return_date BETWEEN :from AND :to
+        ) activity
+        GROUP BY stats_date, book_id
+    """, nativeQuery = true)
+    int backfill(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
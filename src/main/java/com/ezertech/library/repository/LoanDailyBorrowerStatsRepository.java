@@ -0,0 +1,71 @@
+package com.ezertech.library.repository;
+
+import com.ezertech.library.dto.response.TopBorrowerResponse;
+import com.ezertech.library.model.entity.LoanDailyBorrowerStats;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LoanDailyBorrowerStatsRepository
+        extends JpaRepository<LoanDailyBorrowerStats, LoanDailyBorrowerStats.Key> {
+
+    @Query("""
+        SELECT new com.ezertech.library.dto.response.TopBorrowerResponse(s.borrowerEmail, SUM(s.loansOpened))
+        FROM LoanDailyBorrowerStats s
+        WHERE s.statsDate BETWEEN :from AND :to
+        GROUP BY s.borrowerEmail
+        HAVING SUM(s.loansOpened) > 0
+        ORDER BY SUM(s.loansOpened) DESC, s.borrowerEmail
+    """)
+    List<TopBorrowerResponse> findTopBorrowers(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                               Limit limit);
+
+    @Modifying
+    @Query("""
+        UPDATE LoanDailyBorrowerStats s
+        SET s.loansOpened = s.loansOpened + :opened,
+            s.loansReturned = s.loansReturned + :returned
+        WHERE s.statsDate = :day
+        AND s.borrowerEmail = :email
+    """)
+    int increment(@Param("day") LocalDate day, @Param("email") String email,
+                  @Param("opened") int opened, @Param("returned") int returned);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO loan_stats_daily_borrower (stats_date, borrower_email, loans_opened, loans_returned)
+        VALUES (:day, :email, 0, 0)
+        ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("day") LocalDate day, @Param("email") String email);
+
+    @Modifying
+    @Query("DELETE FROM LoanDailyBorrowerStats s WHERE s.statsDate BETWEEN :from AND :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO loan_stats_daily_borrower (stats_date, borrower_email, loans_opened, loans_returned)
+        SELECT stats_date, borrower_email, SUM(opened), SUM(returned)
+        FROM (
+            SELECT loan_date AS stats_date, borrower_email, 1 AS opened, 0 AS returned FROM loans
+            WHERE loan_date BETWEEN :from AND :to
+            UNION ALL
+            SELECT return_date, borrower_email, 0, 1 FROM loans
+            WHERE return_date BETWEEN :from AND :to
+            UNION ALL
+            SELECT loan_date, borrower_email, 1, 0 FROM loans_archive
+            WHERE loan_date BETWEEN :from AND :to
+            UNION ALL
+            SELECT return_date, borrower_email, 0, 1 FROM loans_archive
+            WHERE return_date BETWEEN :from AND :to
+        ) activity
+        GROUP BY stats_date, borrower_email
+    """, nativeQuery = true)
+    int backfill(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,58 @@
+package com.ezertech.library.repository;
+
+import com.ezertech.library.model.entity.LoanDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LoanDailyStatsRepository extends JpaRepository<LoanDailyStats, LocalDate> {
+
+    List<LoanDailyStats> findByStatsDateBetweenOrderByStatsDateAsc(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("""
+        UPDATE LoanDailyStats s
+        SET s.loansOpened = s.loansOpened + :opened,
+            s.loansReturned = s.loansReturned + :returned
+        WHERE s.statsDate = :day
+    """)
+    int increment(@Param("day") LocalDate day, @Param("opened") int opened, @Param("returned") int returned);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO loan_stats_daily (stats_date, loans_opened, loans_returned)
+        VALUES (:day, 0, 0)
+        ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("day") LocalDate day);
+
+    @Modifying
+    @Query("DELETE FROM LoanDailyStats s WHERE s.statsDate BETWEEN :from AND :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recalcula el rango desde los préstamos, vivos y archivados: aperturas por loan_date, devoluciones por return_date
+    @Modifying
+    @Query(value = """
+        INSERT INTO loan_stats_daily (stats_date, loans_opened, loans_returned)
+        SELECT stats_date, SUM(opened), SUM(returned)
+        FROM (
+            SELECT loan_date AS stats_date, 1 AS opened, 0 AS returned FROM loans
+            WHERE loan_date BETWEEN :from AND :to
+            UNION ALL
+            SELECT return_date, 0, 1 FROM loans
+            WHERE return_date BETWEEN :from AND :to
+            UNION ALL
+            SELECT loan_date, 1, 0 FROM loans_archive
+            WHERE loan_date BETWEEN :from AND :to
+            UNION ALL
+            SELECT return_date, 0, 1 FROM loans_archive
+            WHERE return_date BETWEEN :from AND :to
+        ) activity
+        GROUP BY stats_date
+    """, nativeQuery = true)
+    int backfill(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
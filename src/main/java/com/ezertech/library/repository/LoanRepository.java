@@ -1,21 +1,25 @@
 package com.ezertech.library.repository;
 
+import com.ezertech.library.dto.response.LoanResponse;
 import com.ezertech.library.model.entity.Loan;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
-public interface LoanRepository extends JpaRepository<Loan, Long> {
+public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificationExecutor<Loan> {
 
     List<Loan> findByBookId(Long bookId);
 
-    List<Loan> findByBorrowerEmail(String borrowerEmail);
-
     long countByReturnDateIsNull();
 
     @Query("""
@@ -28,12 +32,96 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
 
     boolean existsByBookId(Long bookId);
 
+    @Query("SELECT MIN(l.loanDate) FROM Loan l")
+    LocalDate findFirstLoanDate();
+
+    // Tandas del archivado: en el orden de idx_loans_returned (return_date, id), así cada tanda es
+    // un rango acotado del índice en vez de recorrer y ordenar todos los devueltos antes de la fecha
+    @Query("SELECT l.id FROM Loan l WHERE l.returnDate < :cutoff ORDER BY l.returnDate, l.id")
+    List<Long> findIdsReturnedBefore(@Param("cutoff") LocalDate cutoff, Limit limit);
+
+    /**
+     * Closes the loan only if it is still open, so of two concurrent returns exactly one wins.
+     *
+     * @return 1 if the loan was open and is now returned, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Loan l SET l.returnDate = :returnDate WHERE l.id = :id AND l.returnDate IS NULL")
+    int closeIfOpen(@Param("id") Long id, @Param("returnDate") LocalDate returnDate);
+
+    @Modifying
+    @Query("DELETE FROM Loan l WHERE l.id IN :ids AND l.returnDate IS NOT NULL")
+    int deleteReturnedByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface DueDateView {
+        Long getId();
+
+        LocalDate getDueDate();
+    }
+
+    @Query("SELECT l.id AS id, l.dueDate AS dueDate FROM Loan l WHERE l.returnDate IS NULL")
+    List<DueDateView> findOpenLoanDueDates();
+
+    @Query("SELECT l FROM Loan l JOIN FETCH l.book WHERE l.id IN :ids")
+    List<Loan> findAllWithBookByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = """
+        SELECT l FROM Loan l JOIN FETCH l.book
+        WHERE l.returnDate IS NULL
+        AND l.dueDate < :today
+        ORDER BY l.dueDate, l.id
+    """, countQuery = """
+        SELECT COUNT(l) FROM Loan l
+        WHERE l.returnDate IS NULL
+        AND l.dueDate < :today
+    """)
+    Page<Loan> findOverdue(@Param("today") LocalDate today, Pageable pageable);
+
+    // Proyecciones a LoanResponse: un solo JOIN con books en lugar de un SELECT por préstamo para leer el título
+    @Query(value = """
+        SELECT new com.ezertech.library.dto.response.LoanResponse(
+            l.id, b.id, b.title, l.borrowerName, l.borrowerEmail, l.loanDate, l.dueDate, l.returnDate)
+        FROM Loan l JOIN l.book b
+    """, countQuery = "SELECT COUNT(l) FROM Loan l")
+    Page<LoanResponse> findAllResponses(Pageable pageable);
+
+    // Filtra solo searchText (índice trigram en PostgreSQL) con el keyword ya en minúsculas; el conteo no toca books
+    @Query(value = """
+        SELECT new com.ezertech.library.dto.response.LoanResponse(
+            l.id, b.id, b.title, l.borrowerName, l.borrowerEmail, l.loanDate, l.dueDate, l.returnDate)
+        FROM Loan l JOIN l.book b
+        WHERE l.searchText LIKE CONCAT('%', :keyword, '%')
+    """, countQuery = """
+        SELECT COUNT(l) FROM Loan l
+        WHERE l.searchText LIKE CONCAT('%', :keyword, '%')
+    """)
+    Page<LoanResponse> searchResponsesByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    // Variantes Slice: leen size + 1 filas para saber si hay más, sin el COUNT(*) de Page
+    @Query("""
+        SELECT new com.ezertech.library.dto.response.LoanResponse(
+            l.id, b.id, b.title, l.borrowerName, l.borrowerEmail, l.loanDate, l.dueDate, l.returnDate)
+        FROM Loan l JOIN l.book b
+    """)
+    Slice<LoanResponse> sliceAll(Pageable pageable);
+
+    @Query("""
+        SELECT new com.ezertech.library.dto.response.LoanResponse(
+            l.id, b.id, b.title, l.borrowerName, l.borrowerEmail, l.loanDate, l.dueDate, l.returnDate)
+        FROM Loan l JOIN l.book b
+        WHERE l.searchText LIKE CONCAT('%', :keyword, '%')
+    """)
+    Slice<LoanResponse> sliceByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    // Tras cambiar el título de un libro: rehace searchText de todos sus préstamos en un solo UPDATE
+    @Modifying
     @Query("""
-    SELECT l FROM Loan l
-    WHERE LOWER(l.borrowerName) LIKE LOWER(CONCAT('%', :keyword, '%'))
-       OR LOWER(l.borrowerEmail) LIKE LOWER(CONCAT('%', :keyword, '%'))
-       OR LOWER(l.book.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
-""")
-    Page<Loan> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+        UPDATE Loan l
+        SET l.searchText = CONCAT(LOWER(l.borrowerName), :separator, LOWER(l.borrowerEmail), :separator, :title)
+        WHERE l.book.id = :bookId
+    """)
+    int updateSearchTextForBook(@Param("bookId") Long bookId,
+                                @Param("title") String lowerCaseTitle,
+                                @Param("separator") String separator);
 
 }
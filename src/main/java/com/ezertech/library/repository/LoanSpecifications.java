@@ -0,0 +1,49 @@
+package com.ezertech.library.repository;
+
+import com.ezertech.library.model.entity.Loan;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Criteria filters on loans for the keyset paths; {@link #matching} is the equivalent of
+ * {@link LoanRepository#searchResponsesByKeyword}.
+ */
+public final class LoanSpecifications {
+
+    private LoanSpecifications() {
+    }
+
+    /**
+     * Also fetch-joins the book, which every {@code LoanResponse} needs, so a page of loans costs one query.
+     */
+    public static Specification<Loan> matching(String keyword) {
+        return (root, query, cb) -> {
+            // En la consulta de conteo no se puede usar fetch, ni hace falta el libro
+            boolean counting = query.getResultType() == Long.class || query.getResultType() == long.class;
+            if (!counting) {
+                root.fetch("book");
+            }
+
+            if (keyword == null || keyword.isBlank()) {
+                return cb.conjunction();
+            }
+            String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+            return cb.like(root.get("searchText"), pattern);
+        };
+    }
+
+    /**
+     * Loans of one borrower, with the book fetch-joined like {@link #matching}. Applies to both
+     * {@code Loan} and {@code ArchivedLoan}, which share the attribute names.
+     */
+    public static <T> Specification<T> borrowedBy(String email) {
+        return (root, query, cb) -> {
+            boolean counting = query.getResultType() == Long.class || query.getResultType() == long.class;
+            if (!counting) {
+                root.fetch("book");
+            }
+            return cb.equal(root.get("borrowerEmail"), email);
+        };
+    }
+}
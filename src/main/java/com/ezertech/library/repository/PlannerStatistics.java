@@ -0,0 +1,81 @@
+package com.ezertech.library.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Row-count estimates taken from PostgreSQL planner statistics instead of {@code COUNT(*)}.
+ * Unfiltered tables use {@code pg_class.reltuples}; keyword filters use the row estimate of
+ * {@code EXPLAIN}. Estimates are only as fresh as the last ANALYZE, and any failure (e.g. another
+ * database engine) just yields no estimate.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class PlannerStatistics {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\"\\s*:\\s*(\\d+)");
+
+    private static final String BOOK_MATCHES = """
+        SELECT 1 FROM books
+        WHERE LOWER(title) LIKE ? OR LOWER(author) LIKE ?
+    """;
+
+    private static final String LOAN_MATCHES = """
+        SELECT 1 FROM loans WHERE search_text LIKE ?
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OptionalLong estimateBooks(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return tableRows("books");
+        }
+        String pattern = containsPattern(keyword);
+        return explainRows(BOOK_MATCHES, pattern, pattern);
+    }
+
+    public OptionalLong estimateLoans(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return tableRows("loans");
+        }
+        String pattern = containsPattern(keyword);
+        return explainRows(LOAN_MATCHES, pattern);
+    }
+
+    private OptionalLong tableRows(String table) {
+        try {
+            Long rows = jdbcTemplate.queryForObject(
+                    "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relname = ?", Long.class, table);
+            // reltuples es -1 mientras la tabla no se haya analizado
+            return rows == null || rows < 0 ? OptionalLong.empty() : OptionalLong.of(rows);
+        } catch (DataAccessException ex) {
+            log.debug("No planner statistics for table {}: {}", table, ex.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    private OptionalLong explainRows(String sql, Object... args) {
+        try {
+            String plan = String.join("\n",
+                    jdbcTemplate.queryForList("EXPLAIN (FORMAT JSON) " + sql, String.class, args));
+            Matcher matcher = PLAN_ROWS.matcher(plan);
+            return matcher.find() ? OptionalLong.of(Long.parseLong(matcher.group(1))) : OptionalLong.empty();
+        } catch (DataAccessException ex) {
+            log.debug("Could not estimate rows with EXPLAIN: {}", ex.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    private static String containsPattern(String keyword) {
+        return "%" + keyword.trim().toLowerCase(Locale.ROOT) + "%";
+    }
+}
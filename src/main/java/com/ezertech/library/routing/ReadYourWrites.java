@@ -0,0 +1,36 @@
+package com.ezertech.library.routing;
+
+/**
+ * Per-thread read-your-writes marker for the replica routing.
+ * <p>
+ * While a thread is pinned, read-only transactions on it use the primary instead of the replica, so a
+ * client that has just written reads its own change even if the replica has not replayed it yet.
+ * {@link WriteCommitListener} pins the thread when a write commits; {@link ReadYourWritesFilter}
+ * carries the pin to the client's next requests in the {@value #COOKIE} cookie.
+ */
+public final class ReadYourWrites {
+
+    public static final String COOKIE = "library-primary-until";
+
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /** Routes this thread's reads to the primary until {@code epochMillis}. */
+    public static void pinUntil(long epochMillis) {
+        Long current = PRIMARY_UNTIL.get();
+        if (current == null || current < epochMillis) {
+            PRIMARY_UNTIL.set(epochMillis);
+        }
+    }
+
+    public static boolean isPinned() {
+        Long until = PRIMARY_UNTIL.get();
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    public static void clear() {
+        PRIMARY_UNTIL.remove();
+    }
+}
@@ -0,0 +1,43 @@
+package com.ezertech.library.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Applies the {@link ReadYourWrites#COOKIE} deadline of a client that wrote recently to the request
+ * thread, and clears the pin when the request ends so it cannot leak to the next one.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final Duration window;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Cookie cookie = WebUtils.getCookie(request, ReadYourWrites.COOKIE);
+        if (cookie != null) {
+            try {
+                // El cliente controla la cookie: nunca más allá de una ventana desde ahora
+                long until = Long.parseLong(cookie.getValue());
+                ReadYourWrites.pinUntil(Math.min(until, System.currentTimeMillis() + window.toMillis()));
+            } catch (NumberFormatException ex) {
+                // Cookie manipulada: se ignora y se lee de la réplica
+            }
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ezertech.library.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Polls the replica for its replication lag, in milliseconds, with a configurable query.
+ * <p>
+ * The replica is only used once a check has succeeded and while the last lag read is within
+ * {@code maxLag}; a failing check, a query returning no row or a NULL lag (unknown) takes it out until
+ * the next good one.
+ * The last value is published as the {@value #LAG} gauge, -1 while unknown.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    public static final String LAG = "library.datasource.replica.lag";
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+
+    // -1: todavía sin comprobar o la última comprobación falló
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLag.toMillis();
+        Gauge.builder(LAG, this, monitor -> monitor.lagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${library.datasource.replica.lag-check-interval:PT1S}",
+            initialDelayString = "${library.datasource.replica.lag-check-interval:PT1S}")
+    public void check() {
+        boolean wasUsable = isReplicaUsable();
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            lagMillis = rs.next() ? readLag(rs) : -1;
+        } catch (SQLException ex) {
+            if (wasUsable) {
+                log.warn("Replica lag check failed, reading from the primary: {}", ex.getMessage());
+            }
+            lagMillis = -1;
+        }
+
+        if (wasUsable && !isReplicaUsable() && lagMillis >= 0) {
+            log.warn("Replica is {} ms behind (max {} ms), reading from the primary", lagMillis, maxLagMillis);
+        } else if (!wasUsable && isReplicaUsable()) {
+            log.info("Replica is {} ms behind, read-only transactions use it", lagMillis);
+        }
+    }
+
+    // getLong devuelve 0 para NULL: sin wasNull una réplica desconectada parecería al día
+    private static long readLag(ResultSet rs) throws SQLException {
+        long lag = rs.getLong(1);
+        return rs.wasNull() ? -1 : Math.max(lag, 0);
+    }
+
+    public boolean isReplicaUsable() {
+        long lag = lagMillis;
+        return lag >= 0 && lag <= maxLagMillis;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ezertech.library.routing;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Pins the thread to the primary for {@code window} after every committed read-write transaction and,
+ * inside an HTTP request, hands the same deadline to the client in the {@link ReadYourWrites#COOKIE}
+ * cookie so its next requests read the change too.
+ */
+@RequiredArgsConstructor
+public class WriteCommitListener implements TransactionExecutionListener {
+
+    private static final String COOKIE_SET = WriteCommitListener.class.getName() + ".cookieSet";
+
+    private final Duration window;
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        long until = System.currentTimeMillis() + window.toMillis();
+        ReadYourWrites.pinUntil(until);
+
+        // Una cookie por petición basta: la ventana de la primera escritura ya cubre las siguientes
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getAttribute(COOKIE_SET, RequestAttributes.SCOPE_REQUEST) == null) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                ResponseCookie cookie = ResponseCookie.from(ReadYourWrites.COOKIE, Long.toString(until))
+                        .path("/")
+                        .httpOnly(true)
+                        .sameSite("Lax")
+                        .maxAge(window)
+                        .build();
+                response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+                attributes.setAttribute(COOKIE_SET, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+    }
+}
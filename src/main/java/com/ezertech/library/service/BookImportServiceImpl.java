@@ -0,0 +1,310 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.request.BookRequest;
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.dto.response.BulkImportResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.exception.InvalidImportException;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.util.CsvReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Streams uploaded catalogs into the {@code books} table.
+ * <p>
+ * Rows are parsed and validated one at a time and stored in batches of {@link #BATCH_SIZE}: each batch
+ * checks its ISBNs against the table with a single {@code IN} query and is inserted in its own
+ * transaction, which Hibernate sends as JDBC batches thanks to the pooled {@code books_id_seq} ids.
+ * A failed row never aborts the import; it is reported with its line number instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookImportServiceImpl implements ITBookImportService {
+
+    static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "author", "isbn", "publicationyear");
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private record Row(long line, BookRequest request, String error) {
+
+        static Row valid(long line, BookRequest request) {
+            return new Row(line, request, null);
+        }
+
+        static Row invalid(long line, String isbn, String error) {
+            return new Row(line, new BookRequest(null, null, null, isbn, null, null), error);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+
+    @Override
+    public BulkImportResponse importCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(buffered(reader));
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new InvalidImportException("The CSV upload is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeColumn(header.get(i)), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidImportException("Missing CSV columns: " + String.join(", ", missing));
+        }
+
+        return run(() -> {
+            List<String> record = csv.next();
+            if (record == null) {
+                return null;
+            }
+            return toRow(csv.getRecordLine(),
+                    column(record, columns.get("title")),
+                    column(record, columns.get("author")),
+                    column(record, columns.get("isbn")),
+                    column(record, columns.get("publicationyear")),
+                    column(record, columns.get("status")));
+        });
+    }
+
+    @Override
+    public BulkImportResponse importNdjson(Reader reader) throws IOException {
+        BufferedReader lines = buffered(reader);
+        long[] lineNumber = {0};
+
+        return run(() -> {
+            String line;
+            do {
+                line = lines.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                BookRequest request = jsonMapper.readValue(line, BookRequest.class);
+                return validate(lineNumber[0], withDefaultStatus(request));
+            } catch (JacksonException ex) {
+                return Row.invalid(lineNumber[0], null, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        });
+    }
+
+    private BulkImportResponse run(RowSource source) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        List<Row> batch = new ArrayList<>(BATCH_SIZE);
+
+        Row row;
+        while ((row = source.next()) != null) {
+            progress.received++;
+            if (row.error() != null) {
+                progress.reject(row, row.error());
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == BATCH_SIZE) {
+                store(batch, progress);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            store(batch, progress);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : progress.imported * 1_000_000_000.0 / elapsedNanos;
+        log.info("Bulk import: {} rows received, {} imported, {} rejected in {} ms ({} rows/s)",
+                progress.received, progress.imported, progress.rejected, elapsedNanos / 1_000_000,
+                Math.round(rowsPerSecond));
+
+        return new BulkImportResponse(
+                progress.received,
+                progress.imported,
+                progress.rejected,
+                progress.errors,
+                progress.rejected > progress.errors.size(),
+                elapsedNanos / 1_000_000,
+                rowsPerSecond
+        );
+    }
+
+    private void store(List<Row> batch, Progress progress) {
+        // ISBN repetidos dentro del mismo archivo: gana la primera fila
+        Map<String, Row> unique = new LinkedHashMap<>();
+        for (Row row : batch) {
+            if (unique.putIfAbsent(row.request().isbn(), row) != null) {
+                progress.reject(row, "Duplicate ISBN in upload: " + row.request().isbn());
+            }
+        }
+
+        Set<String> existing = bookRepository.findExistingIsbns(unique.keySet());
+        List<Row> accepted = new ArrayList<>(unique.size());
+        for (Row row : unique.values()) {
+            if (existing.contains(row.request().isbn())) {
+                progress.reject(row, "ISBN already exists: " + row.request().isbn());
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(accepted);
+            progress.imported += accepted.size();
+        } catch (DataIntegrityViolationException ex) {
+            // Otra petición insertó alguno de estos ISBN después de la consulta: se reintenta fila a fila
+            log.debug("Bulk import batch rejected by the database, retrying row by row", ex);
+            for (Row row : accepted) {
+                try {
+                    insert(List.of(row));
+                    progress.imported++;
+                } catch (DataIntegrityViolationException rowEx) {
+                    progress.reject(row, rejectionReason(rowEx, row));
+                }
+            }
+        }
+    }
+
+    private void insert(List<Row> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Book> books = rows.stream().map(row -> toBook(row.request())).toList();
+            bookRepository.saveAll(books);
+            entityManager.flush();
+            entityManager.clear();
+            for (Book book : books) {
+                eventPublisher.publishEvent(new BookChangedEvent(null, BookResponse.from(book)));
+            }
+        });
+    }
+
+    private Row toRow(long line, String title, String author, String isbn, String year, String status) {
+        Integer publicationYear = null;
+        if (!year.isEmpty()) {
+            try {
+                publicationYear = Integer.valueOf(year);
+            } catch (NumberFormatException ex) {
+                return Row.invalid(line, isbn, "Invalid publication year: " + year);
+            }
+        }
+        BookStatus bookStatus = BookStatus.AVAILABLE;
+        if (!status.isEmpty()) {
+            try {
+                bookStatus = BookStatus.valueOf(status.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                return Row.invalid(line, isbn, "Invalid status: " + status);
+            }
+        }
+        return validate(line, new BookRequest(null, title, author, isbn, publicationYear, bookStatus));
+    }
+
+    private Row validate(long line, BookRequest request) {
+        List<String> messages = validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toCollection(ArrayList::new));
+        // BookRequest admite años hasta 2100, pero chk_publication_year rechaza los posteriores al actual
+        if (request.publicationYear() != null && request.publicationYear() > Year.now().getValue()) {
+            messages.add("Publication year cannot be in the future");
+        }
+        if (messages.isEmpty()) {
+            return Row.valid(line, request);
+        }
+        Collections.sort(messages);
+        return Row.invalid(line, request.isbn(), String.join("; ", messages));
+    }
+
+    // Solo una violación de unicidad significa que el ISBN ya existe; el resto se informa tal cual
+    private static String rejectionReason(DataIntegrityViolationException ex, Row row) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                return "ISBN already exists: " + row.request().isbn();
+            }
+        }
+        return "Rejected by the database: " + ex.getMostSpecificCause().getMessage();
+    }
+
+    private static BookRequest withDefaultStatus(BookRequest request) {
+        if (request.status() != null) {
+            return request;
+        }
+        return new BookRequest(null, request.title(), request.author(), request.isbn(),
+                request.publicationYear(), BookStatus.AVAILABLE);
+    }
+
+    private static Book toBook(BookRequest request) {
+        return Book.builder()
+                .title(request.title())
+                .author(request.author())
+                .isbn(request.isbn())
+                .publicationYear(request.publicationYear())
+                .status(request.status())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static String column(List<String> record, Integer index) {
+        if (index == null || index >= record.size()) {
+            return "";
+        }
+        return record.get(index).trim();
+    }
+
+    private static String normalizeColumn(String name) {
+        return name.trim().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static BufferedReader buffered(Reader reader) {
+        return reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    private static final class Progress {
+        long received;
+        long imported;
+        long rejected;
+        final List<BulkImportResponse.RowError> errors = new ArrayList<>();
+
+        void reject(Row row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkImportResponse.RowError(row.line(), row.request().isbn(), message));
+            }
+        }
+    }
+}
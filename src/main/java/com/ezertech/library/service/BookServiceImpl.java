@@ -1,38 +1,78 @@
 package com.ezertech.library.service;
 
+import com.ezertech.library.cache.BookCache;
 import com.ezertech.library.dto.request.BookRequest;
 import com.ezertech.library.dto.request.SearchRequest;
 import com.ezertech.library.dto.response.BookResponse;
 import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.event.BookChangedEvent;
 import com.ezertech.library.exception.BookDeletionException;
 import com.ezertech.library.exception.BookNotFoundException;
 import com.ezertech.library.exception.DuplicateIsbnException;
+import com.ezertech.library.index.AvailableBookIndex;
+import com.ezertech.library.index.BookSearchIndex;
 import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.entity.Loan;
 import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.pagination.Keyset;
+import com.ezertech.library.pagination.KeysetCursor;
+import com.ezertech.library.repository.ArchivedLoanRepository;
 import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.BookSpecifications;
 import com.ezertech.library.repository.LoanRepository;
+import com.ezertech.library.repository.PlannerStatistics;
+import com.ezertech.library.stats.LibraryStatsEngine;
+import com.ezertech.library.util.CsvWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookServiceImpl implements ITBookService {
 
+    private static final int EXPORT_FLUSH_ROWS = 500;
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final Set<String> KEYSET_SORTS = Set.of(
+            "id", "title", "author", "isbn", "publicationYear", "status", "createdAt");
+
     private final BookRepository bookRepository;
     private final LoanRepository loanRepository;
+    private final ArchivedLoanRepository archivedLoanRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final AvailableBookIndex availableBookIndex;
+    private final BookCache bookCache;
+    private final PlannerStatistics plannerStatistics;
+    private final LibraryStatsEngine libraryStatsEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
+    @Transactional
     public BookResponse create(BookRequest request) {
 
         Book book = Book.builder()
@@ -44,48 +84,69 @@ public class BookServiceImpl implements ITBookService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return mapToResponse(bookRepository.save(book));
+        BookResponse created = mapToResponse(bookRepository.saveAndFlush(book));
+        eventPublisher.publishEvent(new BookChangedEvent(null, created));
+        return created;
     }
 
+    // Sin transacción propia: un acierto de caché no debe ocupar una conexión
     @Override
     public BookResponse findById(Long id) {
-        Book book = bookRepository.findById(id)
+        return bookCache.byId(id, bookRepository::findResponseById)
                 .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id));
+    }
 
-        return mapToResponse(book);
+    @Override
+    public BookResponse findByIsbn(String isbn) {
+        return bookCache.byIsbn(isbn, bookRepository::findResponseByIsbn)
+                .orElseThrow(() -> new BookNotFoundException("Book not found with ISBN: " + isbn));
     }
 
     @Override
+    @Transactional
     public BookResponse update(Long id, BookRequest request) {
         Book book = bookRepository.findById(id).orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id)); // Validar ISBN duplicado
         Optional<Book> existing = bookRepository.findByIsbn(request.isbn());
         if (existing.isPresent() && !existing.get().getId().equals(id)) {
             throw new DuplicateIsbnException("El ISBN ya existe: " + request.isbn());
         }
+        BookResponse before = mapToResponse(book);
         book.setTitle(request.title());
         book.setAuthor(request.author());
         book.setIsbn(request.isbn());
         book.setPublicationYear(request.publicationYear());
         book.setStatus(request.status());
-        return mapToResponse(bookRepository.save(book));
+        // Se vuelca antes de mapear para que la respuesta y el evento lleven la versión nueva
+        BookResponse updated = mapToResponse(bookRepository.saveAndFlush(book));
+        // El título forma parte del searchText de cada préstamo: se rehace en la misma transacción
+        if (!Objects.equals(before.title(), updated.title())) {
+            loanRepository.updateSearchTextForBook(id, updated.title().toLowerCase(Locale.ROOT),
+                    Loan.SEARCH_TEXT_SEPARATOR);
+        }
+        eventPublisher.publishEvent(new BookChangedEvent(before, updated));
+        return updated;
     }
 
+    // Transacción de escritura: el findById heredado abriría la suya de solo lectura, que va a la réplica
     @Override
+    @Transactional
     public void delete(Long id) {
         // Verificar si el libro existe
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id));
 
         // Validar si tiene préstamos asociados
-        if (loanRepository.existsByBookId(id)) {
+        if (loanRepository.existsByBookId(id) || archivedLoanRepository.existsByBookId(id)) {
             throw new BookDeletionException("No se puede eliminar el libro porque tiene préstamos activos.");
         }
 
         bookRepository.delete(book);
+        eventPublisher.publishEvent(new BookChangedEvent(mapToResponse(book), null));
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<BookResponse> search(
             SearchRequest request,
             int page,
@@ -93,25 +154,25 @@ public class BookServiceImpl implements ITBookService {
             String sortBy,
             String direction
     ) {
-        Sort sort = Sort.by(
-                "DESC".equalsIgnoreCase(direction)
-                        ? Sort.Direction.DESC
-                        : Sort.Direction.ASC,
-                sortBy
-        );
-
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = PageRequest.of(page, size, BookSearchIndex.sortOf(sortBy, direction));
 
-        Page<Book> result;
+        Page<BookResponse> result;
 
-        if (request != null && request.keyword() != null && !request.keyword().isBlank()) {
-            result = bookRepository.searchByKeyword(request.keyword(), pageable);
+        if (request != null && request.hasKeyword()) {
+            Optional<BookSearchIndex.Hits> hits = bookSearchIndex.search(
+                    request.keyword(), request.prefix(), page, size, sortBy, direction);
+            if (hits.isPresent()) {
+                return hydrate(hits.get(), page, size);
+            }
+            result = request.prefix()
+                    ? bookRepository.searchByWordPrefix(request.keyword(), pageable)
+                    : bookRepository.searchByKeyword(request.keyword(), pageable);
         } else {
-            result = bookRepository.findAll(pageable);
+            result = bookRepository.findAllResponses(pageable);
         }
 
         return new PageResponse<>(
-                result.getContent().stream().map(this::mapToResponse).toList(),
+                result.getContent(),
                 result.getNumber(),
                 result.getSize(),
                 result.getTotalElements(),
@@ -120,50 +181,138 @@ public class BookServiceImpl implements ITBookService {
     }
 
     @Override
-    public Map<String, Object> getLibraryStats() {
+    @Transactional(readOnly = true)
+    public PageResponse<BookResponse> searchSlice(
+            SearchRequest request,
+            int page,
+            int size,
+            String sortBy,
+            String direction,
+            boolean estimateTotal
+    ) {
+        Pageable pageable = PageRequest.of(page, size, BookSearchIndex.sortOf(sortBy, direction));
+
+        Slice<BookResponse> result;
+        String keyword = null;
+
+        if (request != null && request.hasKeyword()) {
+            // Con el índice el total exacto sale gratis
+            Optional<BookSearchIndex.Hits> hits = bookSearchIndex.search(
+                    request.keyword(), request.prefix(), page, size, sortBy, direction);
+            if (hits.isPresent()) {
+                return hydrate(hits.get(), page, size);
+            }
+            keyword = request.keyword();
+            result = request.prefix()
+                    ? bookRepository.sliceByWordPrefix(keyword, pageable)
+                    : bookRepository.sliceByKeyword(keyword, pageable);
+        } else {
+            result = bookRepository.sliceAll(pageable);
+        }
+
+        OptionalLong estimate = estimateTotal ? plannerStatistics.estimateBooks(keyword) : OptionalLong.empty();
+
+        return PageResponse.slice(
+                result.getContent(),
+                result.getNumber(),
+                result.getSize(),
+                result.hasNext(),
+                estimate.isPresent() ? estimate.getAsLong() : null
+        );
+    }
 
-        long totalBooks = bookRepository.count();
+    // El índice ya resolvió y paginó los ids; solo se cargan esas filas, en el orden del índice
+    private PageResponse<BookResponse> hydrate(BookSearchIndex.Hits hits, int page, int size) {
+        Map<Long, BookResponse> byId = bookRepository.findResponsesByIdIn(hits.ids())
+                .stream()
+                .collect(Collectors.toMap(BookResponse::id, Function.identity()));
+
+        List<BookResponse> content = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
 
-        long availableBooks = bookRepository.countByStatus(BookStatus.AVAILABLE);
-        long borrowedBooks = bookRepository.countByStatus(BookStatus.BORROWED);
+        return new PageResponse<>(
+                content,
+                page,
+                size,
+                hits.total(),
+                (int) ((hits.total() + size - 1) / size)
+        );
+    }
 
-        long activeLoans = loanRepository.countByReturnDateIsNull();
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<BookResponse> searchAfter(
+            SearchRequest request,
+            String after,
+            int size,
+            String sortBy,
+            String direction
+    ) {
+        KeysetCursor cursor = Keyset.resolve(after, size, sortBy, direction, KEYSET_SORTS);
+        boolean descending = Keyset.isDescending(direction);
+        Sort sort = Keyset.sort(sortBy, descending);
 
-        long overdueLoans = loanRepository.countOverdueLoans(LocalDate.now());
+        List<Book> rows = bookRepository.findBy(
+                BookSpecifications.matching(request).and(Keyset.after(cursor)),
+                query -> query.sortBy(sort).limit(size + 1).all()
+        );
 
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalBooks", totalBooks);
-        stats.put("availableBooks", availableBooks);
-        stats.put("borrowedBooks", borrowedBooks);
-        stats.put("activeLoans", activeLoans);
-        stats.put("overdueLoans", overdueLoans);
+        return Keyset.page(rows, size, sortBy, descending, this::mapToResponse);
+    }
 
-        return stats;
+    @Override
+    public Map<String, Object> getLibraryStats() {
+        return libraryStatsEngine.snapshot();
     }
 
+    // Sin transacción propia: una respuesta desde el índice no debe ocupar una conexión
     @Override
-    public List<Book> findByStatus(BookStatus status) {
-        return bookRepository.findByStatus(BookStatus.AVAILABLE);
+    public List<BookResponse> suggestAvailable(String prefix, int limit) {
+        int capped = Math.clamp(limit, 1, MAX_SUGGESTIONS);
+        return availableBookIndex.suggest(prefix, capped).orElseGet(() -> {
+            String normalized = prefix == null ? "" : prefix.strip().toLowerCase(Locale.ROOT);
+            return normalized.isEmpty()
+                    ? List.of()
+                    : bookRepository.suggestByPrefix(BookStatus.AVAILABLE, normalized, Limit.of(capped));
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookResponse> findAll() {
-        return bookRepository.findAll()
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+        return bookRepository.findAllResponses();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCsv(Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.row("Título", "Autor", "ISBN", "Estado");
+
+        int rows = 0;
+        try (Stream<Book> books = bookRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                csv.field(book.getTitle())
+                        .field(book.getAuthor())
+                        .field(book.getIsbn())
+                        .field(book.getStatus());
+                csv.endRow();
+                // Sin detach el contexto de persistencia retendría cada libro leído
+                entityManager.detach(book);
+
+                if (++rows % EXPORT_FLUSH_ROWS == 0) {
+                    csv.flush();
+                }
+            }
+        }
+        csv.flush();
+    }
 
     private BookResponse mapToResponse(Book book) {
-        return new BookResponse(
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getIsbn(),
-                book.getPublicationYear(),
-                book.getStatus(),
-                book.getCreatedAt()
-        );
+        return BookResponse.from(book);
     }
 }
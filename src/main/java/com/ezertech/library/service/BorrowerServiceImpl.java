@@ -0,0 +1,86 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.response.BorrowerSummaryResponse;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.exception.BorrowerNotFoundException;
+import com.ezertech.library.model.entity.ArchivedLoan;
+import com.ezertech.library.model.entity.Loan;
+import com.ezertech.library.pagination.Keyset;
+import com.ezertech.library.pagination.KeysetCursor;
+import com.ezertech.library.repository.ArchivedLoanRepository;
+import com.ezertech.library.repository.BorrowerSummaryRepository;
+import com.ezertech.library.repository.LoanRepository;
+import com.ezertech.library.repository.LoanSpecifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BorrowerServiceImpl implements ITBorrowerService {
+
+    private static final Set<String> KEYSET_SORTS = Set.of("id", "loanDate", "dueDate", "createdAt");
+
+    private final BorrowerSummaryRepository borrowerSummaryRepository;
+    private final LoanRepository loanRepository;
+    private final ArchivedLoanRepository archivedLoanRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public BorrowerSummaryResponse getSummary(String email) {
+        return borrowerSummaryRepository.findById(email)
+                .map(BorrowerSummaryResponse::from)
+                .orElseThrow(() -> new BorrowerNotFoundException("Borrower not found with email: " + email));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<LoanResponse> findLoans(String email, String after, int size, String sortBy,
+                                                String direction, boolean includeArchived) {
+        KeysetCursor cursor = Keyset.resolve(after, size, sortBy, direction, KEYSET_SORTS);
+        boolean descending = Keyset.isDescending(direction);
+        Sort sort = Keyset.sort(sortBy, descending);
+
+        // Solo size + 1 préstamos del lector, por el índice (borrower_email, loan_date, id)
+        List<Loan> rows = loanRepository.findBy(
+                LoanSpecifications.<Loan>borrowedBy(email).and(Keyset.after(cursor)),
+                q -> q.sortBy(sort).limit(size + 1).all()
+        );
+        if (!includeArchived) {
+            return Keyset.page(rows, size, sortBy, descending, LoanResponse::from);
+        }
+
+        // Mismo cursor sobre el archivo; de la unión ordenada bastan otra vez size + 1 filas
+        List<ArchivedLoan> archived = archivedLoanRepository.findBy(
+                LoanSpecifications.<ArchivedLoan>borrowedBy(email).and(Keyset.after(cursor)),
+                q -> q.sortBy(sort).limit(size + 1).all()
+        );
+        List<Object> merged = Keyset.merge(rows, archived, sortBy, descending, size + 1);
+        return Keyset.page(merged, size, sortBy, descending, BorrowerServiceImpl::toResponse);
+    }
+
+    private static LoanResponse toResponse(Object row) {
+        return row instanceof ArchivedLoan archived ? LoanResponse.from(archived) : LoanResponse.from((Loan) row);
+    }
+
+    // Al arrancar y tras cada medianoche: los préstamos vencen con el paso del tiempo, no con una escritura
+    @Override
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${library.loans.overdue-sweep-cron:0 0 0 * * *}")
+    public void refreshOverdueCounts() {
+        int updated = borrowerSummaryRepository.refreshOverdue(LocalDate.now());
+        log.info("Borrower overdue counts refreshed for {} borrowers", updated);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.response.BulkImportResponse;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public interface ITBookImportService {
+
+    /**
+     * Imports a CSV upload whose header names the columns {@code title}, {@code author}, {@code isbn},
+     * {@code publicationYear} and optionally {@code status}.
+     */
+    BulkImportResponse importCsv(Reader reader) throws IOException;
+
+    /**
+     * Imports one JSON book object per line, with the same fields as a single create request.
+     */
+    BulkImportResponse importNdjson(Reader reader) throws IOException;
+}
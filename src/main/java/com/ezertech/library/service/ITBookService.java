@@ -4,9 +4,9 @@ import com.ezertech.library.dto.request.BookRequest;
 import com.ezertech.library.dto.request.SearchRequest;
 import com.ezertech.library.dto.response.BookResponse;
 import com.ezertech.library.dto.response.PageResponse;
-import com.ezertech.library.model.entity.Book;
-import com.ezertech.library.model.enums.BookStatus;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +16,8 @@ public interface ITBookService {
 
     BookResponse findById(Long id);
 
+    BookResponse findByIsbn(String isbn);
+
     BookResponse update(Long id, BookRequest request);
 
     void delete(Long id);
@@ -28,9 +30,44 @@ public interface ITBookService {
             String direction
     );
 
+    /**
+     * Count-free variant of {@link #search}: reports whether another page follows instead of the totals,
+     * optionally with a planner-based estimate of the total.
+     */
+    PageResponse<BookResponse> searchSlice(
+            SearchRequest request,
+            int page,
+            int size,
+            String sortBy,
+            String direction,
+            boolean estimateTotal
+    );
+
+    /**
+     * Keyset variant of {@link #search}: {@code after} is the {@code nextCursor} of the previous page,
+     * or an empty value for the first one.
+     */
+    PageResponse<BookResponse> searchAfter(
+            SearchRequest request,
+            String after,
+            int size,
+            String sortBy,
+            String direction
+    );
+
     Map<String, Object> getLibraryStats();
 
-    List<Book> findByStatus(BookStatus status);
+    /**
+     * Typeahead for the loan form: up to {@code limit} available books with a title word, author word
+     * or ISBN starting with {@code prefix}.
+     */
+    List<BookResponse> suggestAvailable(String prefix, int limit);
 
     List<BookResponse> findAll();
+
+    /**
+     * Writes the whole catalog as CSV, streaming rows from the database so memory stays flat
+     * whatever the catalog size.
+     */
+    void exportCsv(Writer writer) throws IOException;
 }
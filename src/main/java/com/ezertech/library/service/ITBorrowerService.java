@@ -0,0 +1,32 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.response.BorrowerSummaryResponse;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.PageResponse;
+
+public interface ITBorrowerService {
+
+    /**
+     * Active, overdue and lifetime loan counts of the borrower, read from the maintained summary.
+     */
+    BorrowerSummaryResponse getSummary(String email);
+
+    /**
+     * Keyset page of the borrower's loans: {@code after} is the {@code nextCursor} of the previous page,
+     * or an empty value for the first one. With {@code includeArchived}, loans already moved to the
+     * archive are merged in; otherwise only the {@code loans} table is read.
+     */
+    PageResponse<LoanResponse> findLoans(
+            String email,
+            String after,
+            int size,
+            String sortBy,
+            String direction,
+            boolean includeArchived
+    );
+
+    /**
+     * Recounts the overdue loans of the borrowers that have any, after loans pass their due date.
+     */
+    void refreshOverdueCounts();
+}
@@ -10,10 +10,45 @@ public interface ITLoanService {
 
     LoanResponse returnBook(Long loanId);
 
+    /**
+     * Loans whose borrower name, borrower email or book title contains {@code keyword}, ignoring case;
+     * a {@code null} or blank keyword returns every loan.
+     */
     PageResponse<LoanResponse> search(
+            String keyword,
             int page,
             int size,
             String sortBy,
             String direction
     );
+
+    /**
+     * Count-free variant of {@link #search}: reports whether another page follows instead of the totals,
+     * optionally with a planner-based estimate of the total.
+     */
+    PageResponse<LoanResponse> searchSlice(
+            String keyword,
+            int page,
+            int size,
+            String sortBy,
+            String direction,
+            boolean estimateTotal
+    );
+
+    /**
+     * Keyset variant of {@link #search}: {@code after} is the {@code nextCursor} of the previous page,
+     * or an empty value for the first one.
+     */
+    PageResponse<LoanResponse> searchAfter(
+            String keyword,
+            String after,
+            int size,
+            String sortBy,
+            String direction
+    );
+
+    /**
+     * Open loans past their due date, oldest due date first.
+     */
+    PageResponse<LoanResponse> findOverdue(int page, int size);
 }
@@ -0,0 +1,36 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.response.LoanActivityResponse;
+import com.ezertech.library.dto.response.RollupBackfillResponse;
+import com.ezertech.library.dto.response.TopBookResponse;
+import com.ezertech.library.dto.response.TopBorrowerResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Loan activity reports, answered from the daily rollups only; the {@code loans} table is never scanned.
+ * Ranges are inclusive on both ends.
+ */
+public interface ITReportService {
+
+    /**
+     * One entry per day of the range, days without activity included with zero counts.
+     */
+    List<LoanActivityResponse> dailyActivity(LocalDate from, LocalDate to);
+
+    /**
+     * One entry per calendar month touched by the range, starting on the first day of the month.
+     */
+    List<LoanActivityResponse> monthlyActivity(LocalDate from, LocalDate to);
+
+    List<TopBookResponse> topBooks(LocalDate from, LocalDate to, int limit);
+
+    List<TopBorrowerResponse> topBorrowers(LocalDate from, LocalDate to, int limit);
+
+    /**
+     * Rebuilds the rollups of the range from the loan history; {@code null} bounds default to the first
+     * loan on record and yesterday.
+     */
+    RollupBackfillResponse backfill(LocalDate from, LocalDate to);
+}
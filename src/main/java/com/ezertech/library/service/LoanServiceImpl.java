@@ -1,95 +1,175 @@
 package com.ezertech.library.service;
 
+import com.ezertech.library.cache.BookCache;
 import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.dto.response.BookResponse;
 import com.ezertech.library.dto.response.LoanResponse;
 import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.event.LoanChangedEvent;
 import com.ezertech.library.exception.BookNotAvailableException;
 import com.ezertech.library.exception.BookNotFoundException;
+import com.ezertech.library.exception.LoanAlreadyReturnedException;
 import com.ezertech.library.exception.LoanNotFoundException;
+import com.ezertech.library.index.OverdueLoanIndex;
 import com.ezertech.library.model.entity.Book;
 import com.ezertech.library.model.entity.Loan;
 import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.pagination.Keyset;
+import com.ezertech.library.pagination.KeysetCursor;
+import com.ezertech.library.reporting.LoanActivityRollups;
 import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.BorrowerSummaryRepository;
 import com.ezertech.library.repository.LoanRepository;
+import com.ezertech.library.repository.LoanSpecifications;
+import com.ezertech.library.repository.PlannerStatistics;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class LoanServiceImpl implements ITLoanService {
 
+    private static final Set<String> KEYSET_SORTS = Set.of(
+            "id", "loanDate", "dueDate", "borrowerName", "borrowerEmail", "createdAt");
+
     private final LoanRepository loanRepository;
     private final BookRepository bookRepository;
+    private final BorrowerSummaryRepository borrowerSummaryRepository;
+    private final BookCache bookCache;
+    private final PlannerStatistics plannerStatistics;
+    private final OverdueLoanIndex overdueLoanIndex;
+    private final LoanActivityRollups loanActivityRollups;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public LoanResponse create(LoanRequest request) {
 
-        Book book = bookRepository.findById(request.bookId())
+        // Un solo UPDATE condicional decide quién se queda con el libro, sin leer antes su estado
+        if (bookRepository.updateStatusIf(request.bookId(), BookStatus.AVAILABLE, BookStatus.BORROWED) == 0) {
+            if (!bookRepository.existsById(request.bookId())) {
+                throw new BookNotFoundException("Book not found with id: " + request.bookId());
+            }
+            throw new BookNotAvailableException("Book is not available for loan");
+        }
+
+        // Título y demás datos desde la caché; el préstamo solo necesita una referencia al libro
+        BookResponse bookAfter = bookCache.byId(request.bookId(), bookRepository::findResponseById)
                 .orElseThrow(() ->
                         new BookNotFoundException("Book not found with id: " + request.bookId())
-                );
+                )
+                .withStatus(BookStatus.BORROWED);
+        // Se publica ya: si algo falla después, el rollback también invalida la caché
+        eventPublisher.publishEvent(new BookChangedEvent(bookAfter.withStatus(BookStatus.AVAILABLE), bookAfter));
 
-        if (book.getStatus() != BookStatus.AVAILABLE) {
-            throw new BookNotAvailableException("Book is not available for loan");
+        Book book = bookRepository.getReferenceById(request.bookId());
+        // Por si el libro ya estaba en el contexto de persistencia antes del UPDATE
+        if (Hibernate.isInitialized(book)) {
+            book.setStatus(BookStatus.BORROWED);
         }
 
-        Loan loan = Loan.builder()
+        Loan loan = loanRepository.save(Loan.builder()
                 .book(book)
                 .borrowerName(request.borrowerName())
                 .borrowerEmail(request.borrowerEmail())
+                .searchText(Loan.searchTextOf(request.borrowerName(), request.borrowerEmail(), bookAfter.title()))
                 .loanDate(LocalDate.now())
                 .dueDate(LocalDate.now().plusDays(14))
-                .build();
+                .build());
 
-        book.setStatus(BookStatus.BORROWED);
-        bookRepository.save(book);
+        borrowerSummaryRepository.insertIfAbsent(loan.getBorrowerEmail(), loan.getBorrowerName());
+        borrowerSummaryRepository.recordLoanOpened(loan.getBorrowerEmail(), loan.getBorrowerName());
+        // Al final: la fila del día es compartida por todos los préstamos y queda bloqueada hasta el commit
+        loanActivityRollups.recordOpened(loan.getLoanDate(), bookAfter.id(), loan.getBorrowerEmail());
 
-        return mapToResponse(loanRepository.save(loan));
+        LoanResponse created = new LoanResponse(
+                loan.getId(),
+                bookAfter.id(),
+                bookAfter.title(),
+                loan.getBorrowerName(),
+                loan.getBorrowerEmail(),
+                loan.getLoanDate(),
+                loan.getDueDate(),
+                loan.getReturnDate()
+        );
+        eventPublisher.publishEvent(new LoanChangedEvent(null, created));
+        return created;
     }
 
     @Override
+    @Transactional
     public LoanResponse returnBook(Long loanId) {
 
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new LoanNotFoundException("Loan not found with id: " + loanId));
+        if (loan.getReturnDate() != null) {
+            throw new LoanAlreadyReturnedException("Loan " + loanId + " was already returned");
+        }
 
-        loan.setReturnDate(LocalDate.now());
+        // Cierre condicional: de dos devoluciones simultáneas solo una llega a liberar el libro
+        LocalDate today = LocalDate.now();
+        if (loanRepository.closeIfOpen(loanId, today) == 0) {
+            throw new LoanAlreadyReturnedException("Loan " + loanId + " was already returned");
+        }
+        LoanResponse before = mapToResponse(loan);
+        loan.setReturnDate(today);
 
         Book book = loan.getBook();
-        book.setStatus(BookStatus.AVAILABLE);
+        // El libro ya está cargado: se aprovecha para corregir un searchText desfasado
+        loan.refreshSearchText(book.getTitle());
+        LoanResponse returned = mapToResponse(loanRepository.save(loan));
 
-        bookRepository.save(book);
+        // Espejo del préstamo: solo un libro prestado vuelve a estar disponible, nunca uno ya prestado de nuevo
+        if (bookRepository.updateStatusIf(book.getId(), BookStatus.BORROWED, BookStatus.AVAILABLE) == 1) {
+            BookResponse bookBefore = BookResponse.from(book);
+            // Leído tras el UPDATE: el evento lleva el estado y la versión que quedan en la base de datos
+            BookResponse bookAfter = bookRepository.findResponseById(book.getId())
+                    .orElseGet(() -> bookBefore.withStatus(BookStatus.AVAILABLE));
+            eventPublisher.publishEvent(new BookChangedEvent(bookBefore, bookAfter));
+        }
 
-        return mapToResponse(loanRepository.save(loan));
+        // Un préstamo vencido ya figura en overdue_loans desde el barrido diario
+        borrowerSummaryRepository.recordLoanClosed(loan.getBorrowerEmail(),
+                loan.getDueDate().isBefore(loan.getReturnDate()) ? 1 : 0);
+        loanActivityRollups.recordReturned(loan.getReturnDate(), book.getId(), loan.getBorrowerEmail());
+        eventPublisher.publishEvent(new LoanChangedEvent(before, returned));
+        return returned;
     }
 
-    public PageResponse<LoanResponse> search(int page, int size, String sortBy, String direction) {
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<LoanResponse> search(String keyword, int page, int size, String sortBy, String direction) {
         Sort sort = Sort.by("DESC".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        // Accede al query desde el contexto web (no recomendado para lógica pura, pero válido si no quieres cambiar la interfaz)
-        String query = Optional.ofNullable(RequestContextHolder.getRequestAttributes())
-                .filter(ServletRequestAttributes.class::isInstance)
-                .map(ServletRequestAttributes.class::cast)
-                .map(ServletRequestAttributes::getRequest)
-                .map(req -> req.getParameter("query"))
-                .orElse(null);
+        String searchText = normalize(keyword);
 
-        Page<Loan> result = (query != null && !query.trim().isEmpty())
-                ? loanRepository.searchByKeyword(query.trim(), pageable)
-                : loanRepository.findAll(pageable);
+        Page<LoanResponse> result = searchText != null
+                ? loanRepository.searchResponsesByKeyword(searchText, pageable)
+                : loanRepository.findAllResponses(pageable);
 
         return new PageResponse<>(
-                result.getContent().stream().map(this::mapToResponse).toList(),
+                result.getContent(),
                 result.getNumber(),
                 result.getSize(),
                 result.getTotalElements(),
@@ -97,19 +177,86 @@ public class LoanServiceImpl implements ITLoanService {
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<LoanResponse> searchSlice(String keyword, int page, int size, String sortBy, String direction,
+                                                  boolean estimateTotal) {
+        Sort sort = Sort.by("DESC".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy);
+        Pageable pageable = PageRequest.of(page, size, sort);
 
+        String searchText = normalize(keyword);
 
+        Slice<LoanResponse> result = searchText != null
+                ? loanRepository.sliceByKeyword(searchText, pageable)
+                : loanRepository.sliceAll(pageable);
 
-    private LoanResponse mapToResponse(Loan loan) {
-        return new LoanResponse(
-                loan.getId(),
-                loan.getBook().getId(),
-                loan.getBook().getTitle(),
-                loan.getBorrowerName(),
-                loan.getBorrowerEmail(),
-                loan.getLoanDate(),
-                loan.getDueDate(),
-                loan.getReturnDate()
+        OptionalLong estimate = estimateTotal ? plannerStatistics.estimateLoans(searchText) : OptionalLong.empty();
+
+        return PageResponse.slice(
+                result.getContent(),
+                result.getNumber(),
+                result.getSize(),
+                result.hasNext(),
+                estimate.isPresent() ? estimate.getAsLong() : null
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<LoanResponse> searchAfter(String keyword, String after, int size, String sortBy,
+                                                  String direction) {
+        KeysetCursor cursor = Keyset.resolve(after, size, sortBy, direction, KEYSET_SORTS);
+        boolean descending = Keyset.isDescending(direction);
+        Sort sort = Keyset.sort(sortBy, descending);
+
+        List<Loan> rows = loanRepository.findBy(
+                LoanSpecifications.matching(normalize(keyword)).and(Keyset.after(cursor)),
+                q -> q.sortBy(sort).limit(size + 1).all()
+        );
+
+        return Keyset.page(rows, size, sortBy, descending, this::mapToResponse);
+    }
+
+    @Override
+    public PageResponse<LoanResponse> findOverdue(int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+
+        Optional<OverdueLoanIndex.Hits> hits = overdueLoanIndex.overdue(page, size);
+        if (hits.isEmpty()) {
+            Page<Loan> result = loanRepository.findOverdue(LocalDate.now(), pageable);
+            return new PageResponse<>(
+                    result.getContent().stream().map(this::mapToResponse).toList(),
+                    result.getNumber(),
+                    result.getSize(),
+                    result.getTotalElements(),
+                    result.getTotalPages()
+            );
+        }
+
+        Map<Long, Loan> byId = loanRepository.findAllWithBookByIdIn(hits.get().ids())
+                .stream()
+                .collect(Collectors.toMap(Loan::getId, Function.identity()));
+        long total = hits.get().total();
+
+        return new PageResponse<>(
+                hits.get().ids().stream()
+                        .map(byId::get)
+                        .filter(Objects::nonNull)
+                        .map(this::mapToResponse)
+                        .toList(),
+                page,
+                size,
+                total,
+                (int) ((total + size - 1) / size)
         );
     }
+
+    // searchText se guarda en minúsculas: el keyword se compara igual, sin LOWER() en la columna
+    private static String normalize(String keyword) {
+        return keyword == null || keyword.isBlank() ? null : keyword.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private LoanResponse mapToResponse(Loan loan) {
+        return LoanResponse.from(loan);
+    }
 }
@@ -0,0 +1,107 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.response.LoanActivityResponse;
+import com.ezertech.library.dto.response.RollupBackfillResponse;
+import com.ezertech.library.dto.response.TopBookResponse;
+import com.ezertech.library.dto.response.TopBorrowerResponse;
+import com.ezertech.library.exception.InvalidReportRangeException;
+import com.ezertech.library.model.entity.LoanDailyStats;
+import com.ezertech.library.reporting.LoanRollupBackfill;
+import com.ezertech.library.repository.LoanDailyBookStatsRepository;
+import com.ezertech.library.repository.LoanDailyBorrowerStatsRepository;
+import com.ezertech.library.repository.LoanDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ReportServiceImpl implements ITReportService {
+
+    private static final int MAX_TOP = 100;
+    // Diez años de días: suficiente para un panel y acota la respuesta
+    private static final long MAX_RANGE_DAYS = 3_660;
+
+    private final LoanDailyStatsRepository dailyStats;
+    private final LoanDailyBookStatsRepository bookStats;
+    private final LoanDailyBorrowerStatsRepository borrowerStats;
+    private final LoanRollupBackfill rollupBackfill;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LoanActivityResponse> dailyActivity(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        Map<LocalDate, LoanDailyStats> byDay = dailyStats.findByStatsDateBetweenOrderByStatsDateAsc(from, to)
+                .stream()
+                .collect(Collectors.toMap(LoanDailyStats::getStatsDate, Function.identity()));
+
+        List<LoanActivityResponse> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LoanDailyStats stats = byDay.get(day);
+            days.add(stats == null
+                    ? new LoanActivityResponse(day, 0, 0)
+                    : new LoanActivityResponse(day, stats.getLoansOpened(), stats.getLoansReturned()));
+        }
+        return days;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LoanActivityResponse> monthlyActivity(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        // Como mucho unas decenas de filas diarias por mes: se agrupan aquí en lugar de en SQL
+        Map<LocalDate, long[]> byMonth = new TreeMap<>();
+        for (LocalDate month = from.withDayOfMonth(1); !month.isAfter(to); month = month.plusMonths(1)) {
+            byMonth.put(month, new long[2]);
+        }
+        for (LoanDailyStats stats : dailyStats.findByStatsDateBetweenOrderByStatsDateAsc(from, to)) {
+            long[] totals = byMonth.get(stats.getStatsDate().withDayOfMonth(1));
+            totals[0] += stats.getLoansOpened();
+            totals[1] += stats.getLoansReturned();
+        }
+        return byMonth.entrySet().stream()
+                .map(month -> new LoanActivityResponse(month.getKey(), month.getValue()[0], month.getValue()[1]))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TopBookResponse> topBooks(LocalDate from, LocalDate to, int limit) {
+        checkRange(from, to);
+        return bookStats.findTopBooks(from, to, Limit.of(Math.clamp(limit, 1, MAX_TOP)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TopBorrowerResponse> topBorrowers(LocalDate from, LocalDate to, int limit) {
+        checkRange(from, to);
+        return borrowerStats.findTopBorrowers(from, to, Limit.of(Math.clamp(limit, 1, MAX_TOP)));
+    }
+
+    @Override
+    public RollupBackfillResponse backfill(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidReportRangeException("Range start " + from + " is after its end " + to);
+        }
+        return rollupBackfill.backfill(from, to);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidReportRangeException("Range start " + from + " is after its end " + to);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidReportRangeException("Report ranges are limited to " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
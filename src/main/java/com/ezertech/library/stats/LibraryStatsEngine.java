@@ -0,0 +1,101 @@
+package com.ezertech.library.stats;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.event.LoanChangedEvent;
+import com.ezertech.library.index.OverdueLoanIndex;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the dashboard statistics as counters so reading them costs no database round trip.
+ * <p>
+ * Counters are seeded from the database at startup, moved by book and loan change events, and
+ * periodically reconciled against the database to correct drift from changes that raced with a
+ * reconciliation. The overdue count comes from {@link OverdueLoanIndex}, which tracks loans
+ * crossing their due date.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LibraryStatsEngine {
+
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final OverdueLoanIndex overdueLoanIndex;
+
+    private final AtomicLong totalBooks = new AtomicLong();
+    private final AtomicLong availableBooks = new AtomicLong();
+    private final AtomicLong borrowedBooks = new AtomicLong();
+    private final AtomicLong activeLoans = new AtomicLong();
+    private volatile boolean seeded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${library.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${library.stats.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        totalBooks.set(bookRepository.count());
+        availableBooks.set(bookRepository.countByStatus(BookStatus.AVAILABLE));
+        borrowedBooks.set(bookRepository.countByStatus(BookStatus.BORROWED));
+        activeLoans.set(loanRepository.countByReturnDateIsNull());
+        seeded = true;
+        log.debug("Library stats reconciled: {}", snapshot());
+    }
+
+    public Map<String, Object> snapshot() {
+        if (!seeded) {
+            reconcile();
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalBooks", totalBooks.get());
+        stats.put("availableBooks", availableBooks.get());
+        stats.put("borrowedBooks", borrowedBooks.get());
+        stats.put("activeLoans", activeLoans.get());
+        // Mientras el índice carga se cuenta en la base de datos
+        stats.put("overdueLoans", overdueLoanIndex.overdueCount()
+                .orElseGet(() -> loanRepository.countOverdueLoans(LocalDate.now())));
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.before() != null) {
+            totalBooks.decrementAndGet();
+            adjustStatus(event.before(), -1);
+        }
+        if (event.after() != null) {
+            totalBooks.incrementAndGet();
+            adjustStatus(event.after(), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanChanged(LoanChangedEvent event) {
+        if (event.isOpened()) {
+            activeLoans.incrementAndGet();
+        } else if (event.isClosed()) {
+            activeLoans.decrementAndGet();
+        }
+    }
+
+    private void adjustStatus(BookResponse book, int delta) {
+        if (book.status() == BookStatus.AVAILABLE) {
+            availableBooks.addAndGet(delta);
+        } else if (book.status() == BookStatus.BORROWED) {
+            borrowedBooks.addAndGet(delta);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ezertech.library.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record-at-a-time RFC 4180 reader, the counterpart of {@link CsvWriter}.
+ * <p>
+ * Quoted fields may contain separators, doubled quotes and line breaks. Only the current record is kept
+ * in memory, so arbitrarily large uploads can be read as a stream.
+ */
+public class CsvReader {
+
+    private static final int SEPARATOR = ',';
+    private static final int QUOTE = '"';
+
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder();
+    private int peeked = -2;
+    private long lineNumber = 1;
+    private long recordLine;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * @return the fields of the next record, or {@code null} at the end of the input
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        // Las líneas vacías no son registros
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = lineNumber;
+
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field at line " + lineNumber);
+                }
+                if (c == QUOTE) {
+                    if (peek() == QUOTE) {
+                        field.append('"');
+                        read();
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE && field.isEmpty()) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Line where the last returned record starts; blank lines and quoted line breaks make it differ
+     * from the record count.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (peeked != -2) {
+            c = peeked;
+            peeked = -2;
+        } else {
+            c = in.read();
+        }
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = in.read();
+        }
+        return peeked;
+    }
+}
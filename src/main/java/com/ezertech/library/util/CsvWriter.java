@@ -0,0 +1,90 @@
+package com.ezertech.library.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal RFC 4180 writer that appends fields straight into the underlying writer.
+ * <p>
+ * Fields are only quoted when they contain a separator, a quote or a line break, and plain fields are
+ * written without building intermediate strings, so a row costs no allocation beyond its values.
+ * Wrap the target in a {@link java.io.BufferedWriter} and call {@link #flush()} every few rows.
+ */
+public class CsvWriter implements Flushable, Closeable {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String LINE_END = "\r\n";
+
+    private final Writer out;
+    private boolean firstField = true;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public CsvWriter field(String value) throws IOException {
+        if (!firstField) {
+            out.write(SEPARATOR);
+        }
+        firstField = false;
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return this;
+        }
+        out.write(QUOTE);
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == QUOTE) {
+                // Las comillas se duplican: se escribe el tramo incluyendo la comilla y se repite
+                out.write(value, start, i - start + 1);
+                out.write(QUOTE);
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write(QUOTE);
+        return this;
+    }
+
+    public CsvWriter field(Object value) throws IOException {
+        return field(value == null ? null : value.toString());
+    }
+
+    public void endRow() throws IOException {
+        out.write(LINE_END);
+        firstField = true;
+    }
+
+    public void row(String... values) throws IOException {
+        for (String value : values) {
+            field(value);
+        }
+        endRow();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == SEPARATOR || c == QUOTE || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
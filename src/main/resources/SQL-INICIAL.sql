@@ -86,3 +86,97 @@ VALUES (
     CURRENT_DATE,
     CURRENT_DATE + INTERVAL '14 days'
 );
+
+
+-- Los ids de books se asignan en bloques de 50 (allocationSize del entity) para permitir INSERT en lote
+ALTER SEQUENCE books_id_seq INCREMENT BY 50;
+
+-- Versión para bloqueo optimista y ETags; el UPDATE condicional del préstamo también la incrementa
+ALTER TABLE books ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Texto de búsqueda desnormalizado del préstamo: nombre, email y título del libro en minúsculas,
+-- separados por saltos de línea. Lo mantienen el alta, la devolución y los cambios de título del libro
+ALTER TABLE loans ADD COLUMN search_text VARCHAR(402);
+
+UPDATE loans l
+SET search_text = LOWER(l.borrower_name || E'\n' || l.borrower_email || E'\n' || b.title)
+FROM books b
+WHERE b.id = l.book_id;
+
+ALTER TABLE loans ALTER COLUMN search_text SET NOT NULL;
+
+-- Índice trigram: sirve a LIKE '%palabra%' sin recorrer la tabla entera
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_loans_search_text ON loans USING gin (search_text gin_trgm_ops);
+
+-- Totales por lector, mantenidos en la misma transacción que el alta y la devolución del préstamo
+CREATE TABLE borrower_summaries (
+    borrower_email   VARCHAR(150) PRIMARY KEY,
+    borrower_name    VARCHAR(100) NOT NULL,
+    active_loans     INTEGER NOT NULL DEFAULT 0,
+    overdue_loans    INTEGER NOT NULL DEFAULT 0,
+    lifetime_loans   BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO borrower_summaries (borrower_email, borrower_name, active_loans, overdue_loans, lifetime_loans)
+SELECT
+    l.borrower_email,
+    (ARRAY_AGG(l.borrower_name ORDER BY l.loan_date DESC, l.id DESC))[1],
+    COUNT(*) FILTER (WHERE l.return_date IS NULL),
+    COUNT(*) FILTER (WHERE l.return_date IS NULL AND l.due_date < CURRENT_DATE),
+    COUNT(*)
+FROM loans l
+GROUP BY l.borrower_email;
+
+-- Historial por lector con paginación keyset; sustituye al índice solo por email
+DROP INDEX idx_loans_borrower_email;
+CREATE INDEX idx_loans_borrower_history ON loans (borrower_email, loan_date, id);
+
+-- Préstamos devueltos hace tiempo, fuera de la tabla caliente; el id es el del préstamo original
+CREATE TABLE loans_archive (
+    id               BIGINT PRIMARY KEY,
+    book_id          BIGINT NOT NULL,
+    borrower_name    VARCHAR(100) NOT NULL,
+    borrower_email   VARCHAR(150) NOT NULL,
+    loan_date        DATE NOT NULL,
+    due_date         DATE NOT NULL,
+    return_date      DATE NOT NULL,
+    created_at       TIMESTAMP NOT NULL,
+    archived_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_loans_archive_book
+        FOREIGN KEY (book_id)
+        REFERENCES books (id)
+);
+
+CREATE INDEX idx_loans_archive_book_id ON loans_archive (book_id);
+CREATE INDEX idx_loans_archive_borrower_history ON loans_archive (borrower_email, loan_date, id);
+
+-- Selección de cada tanda del archivado: solo indexa los préstamos ya devueltos
+CREATE INDEX idx_loans_returned ON loans (return_date, id) WHERE return_date IS NOT NULL;
+
+-- Rollups diarios de préstamos para los informes: se incrementan en la misma transacción que el
+-- alta y la devolución, y POST /api/reports/backfill los reconstruye desde el historial
+CREATE TABLE loan_stats_daily (
+    stats_date       DATE PRIMARY KEY,
+    loans_opened     INTEGER NOT NULL DEFAULT 0,
+    loans_returned   INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE TABLE loan_stats_daily_book (
+    stats_date       DATE NOT NULL,
+    book_id          BIGINT NOT NULL,
+    loans_opened     INTEGER NOT NULL DEFAULT 0,
+    loans_returned   INTEGER NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (stats_date, book_id)
+);
+
+CREATE TABLE loan_stats_daily_borrower (
+    stats_date       DATE NOT NULL,
+    borrower_email   VARCHAR(150) NOT NULL,
+    loans_opened     INTEGER NOT NULL DEFAULT 0,
+    loans_returned   INTEGER NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (stats_date, borrower_email)
+);
@@ -0,0 +1,62 @@
+// Typeahead del formulario de préstamos: pide sugerencias a la API mientras se escribe
+// y guarda en el campo oculto bookId el id de la opción elegida.
+(function () {
+    const input = document.getElementById('bookSearch');
+    if (!input) {
+        return;
+    }
+    const hidden = document.getElementById('bookId');
+    const options = document.getElementById('bookOptions');
+    const url = input.dataset.suggestUrl;
+    const limit = 10;
+    const ids = new Map();
+    let timer;
+    let pending;
+
+    function label(book) {
+        return book.title + ' — ' + book.author + ' (' + book.isbn + ')';
+    }
+
+    function select() {
+        hidden.value = ids.get(input.value) ?? '';
+    }
+
+    function load(query) {
+        if (pending) {
+            pending.abort();
+        }
+        pending = new AbortController();
+        fetch(url + '?q=' + encodeURIComponent(query) + '&limit=' + limit, {
+            signal: pending.signal,
+            headers: {Accept: 'application/json'}
+        })
+            .then(response => response.ok ? response.json() : [])
+            .then(books => {
+                ids.clear();
+                options.replaceChildren(...books.map(book => {
+                    const option = document.createElement('option');
+                    option.value = label(book);
+                    ids.set(option.value, book.id);
+                    return option;
+                }));
+                select();
+            })
+            .catch(() => {});
+    }
+
+    input.addEventListener('input', () => {
+        clearTimeout(timer);
+        // Elegir una opción del datalist también dispara 'input' con su texto completo
+        if (ids.has(input.value)) {
+            select();
+            return;
+        }
+        hidden.value = '';
+        const query = input.value.trim();
+        if (query.length === 0) {
+            options.replaceChildren();
+            return;
+        }
+        timer = setTimeout(() => load(query), 200);
+    });
+})();
@@ -0,0 +1,133 @@
+package com.ezertech.library.archive;
+
+import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.entity.Loan;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.ArchivedLoanRepository;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.BorrowerSummaryRepository;
+import com.ezertech.library.repository.LoanRepository;
+import com.ezertech.library.service.ITBorrowerService;
+import com.ezertech.library.service.ITLoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archival in small batches against H2, and borrower history with and without the archive.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loan-archive;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "library.loans.archive.retention=P30D",
+        "library.loans.archive.batch-size=2"
+})
+@ActiveProfiles("h2")
+class LoanArchiverTest {
+
+    private static final String EMAIL = "marta@test.com";
+
+    @Autowired
+    private LoanArchiver loanArchiver;
+
+    @Autowired
+    private ITLoanService loanService;
+
+    @Autowired
+    private ITBorrowerService borrowerService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private ArchivedLoanRepository archivedLoanRepository;
+
+    @Autowired
+    private BorrowerSummaryRepository borrowerSummaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        archivedLoanRepository.deleteAllInBatch();
+        loanRepository.deleteAllInBatch();
+        borrowerSummaryRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testArchivesOnlyLoansReturnedBeforeRetention() {
+        List<Long> ids = lend(6);
+        returnedDaysAgo(ids.get(0), 200);
+        returnedDaysAgo(ids.get(1), 90);
+        returnedDaysAgo(ids.get(2), 31);
+        returnedDaysAgo(ids.get(3), 5);
+        // ids.get(4) y ids.get(5) siguen prestados
+
+        // Tres préstamos en tandas de dos: la segunda tanda no se llena y termina el recorrido
+        assertEquals(3, loanArchiver.archive());
+
+        assertEquals(List.of(ids.get(3), ids.get(4), ids.get(5)),
+                loanRepository.findAll().stream().map(Loan::getId).sorted().toList());
+        assertEquals(3, archivedLoanRepository.count());
+        assertEquals(0, loanArchiver.archive());
+    }
+
+    @Test
+    void testHistoryIncludesArchiveOnlyWhenAsked() {
+        List<Long> ids = lend(5);
+        returnedDaysAgo(ids.get(0), 120);
+        returnedDaysAgo(ids.get(2), 60);
+        loanArchiver.archive();
+
+        assertEquals(List.of(ids.get(4), ids.get(3), ids.get(1)), history(false));
+        assertEquals(ids.reversed(), history(true));
+    }
+
+    private List<Long> history(boolean includeArchived) {
+        List<Long> seen = new ArrayList<>();
+        String after = null;
+        do {
+            PageResponse<LoanResponse> page = borrowerService.findLoans(EMAIL, after, 2, "id", "DESC", includeArchived);
+            page.content().forEach(loan -> seen.add(loan.id()));
+            after = page.nextCursor();
+        } while (after != null);
+        return seen;
+    }
+
+    private void returnedDaysAgo(Long loanId, int days) {
+        loanService.returnBook(loanId);
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        loan.setReturnDate(LocalDate.now().minusDays(days));
+        loanRepository.save(loan);
+    }
+
+    private List<Long> lend(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Book book = bookRepository.save(Book.builder()
+                    .title("Archived " + i)
+                    .author("Author")
+                    .isbn(String.format("977%010d", i))
+                    .publicationYear(2000)
+                    .status(BookStatus.AVAILABLE)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            ids.add(loanService.create(new LoanRequest(book.getId(), "Marta", EMAIL, LocalDate.now())).id());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ezertech.library.benchmark;
+
+import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.dto.response.BulkImportResponse;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.service.ITBookImportService;
+import com.ezertech.library.service.ITLoanService;
+import org.springframework.context.ApplicationContext;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Catalog shared by the load test and the benchmarks that boot the whole application.
+ * <p>
+ * Book {@code i} is titled with two of {@link #TITLE_WORDS} and {@code "vol. i"}, written by
+ * {@code "Author " + i % 500}, with ISBN {@code 978} followed by {@code i} in ten digits. Everything is
+ * written through the services, so the search index and the statistics receive the events as they
+ * would in production.
+ */
+public final class CatalogSeeder {
+
+    public static final String[] TITLE_WORDS = {
+            "java", "code", "design", "patterns", "data", "clean", "systems", "domain", "testing", "cloud"};
+
+    private CatalogSeeder() {
+    }
+
+    /**
+     * Imports {@code count} books and returns their ids in ascending order.
+     */
+    public static List<Long> seedBooks(ApplicationContext app, int count) {
+        StringBuilder csv = new StringBuilder("title,author,isbn,publicationYear\n");
+        for (int i = 0; i < count; i++) {
+            csv.append(TITLE_WORDS[i % TITLE_WORDS.length]).append(' ')
+                    .append(TITLE_WORDS[(i / TITLE_WORDS.length) % TITLE_WORDS.length])
+                    .append(" vol. ").append(i).append(',')
+                    .append("Author ").append(i % 500).append(',')
+                    .append(String.format("978%010d", i)).append(',')
+                    .append(1950 + i % 75).append('\n');
+        }
+        try {
+            BulkImportResponse result = app.getBean(ITBookImportService.class).importCsv(new StringReader(csv.toString()));
+            if (result.imported() != count) {
+                throw new IllegalStateException("Seeded " + result.imported() + " of " + count + " books: "
+                        + result.errors());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return app.getBean(BookRepository.class).findAll().stream().map(Book::getId).sorted().toList();
+    }
+
+    /**
+     * Opens one loan, due in two weeks, on each of the given books, each for a different reader.
+     */
+    public static void seedLoans(ApplicationContext app, List<Long> bookIds) {
+        ITLoanService loans = app.getBean(ITLoanService.class);
+        for (Long bookId : bookIds) {
+            loans.create(new LoanRequest(bookId, "Reader " + bookId, "reader" + bookId + "@test.com",
+                    LocalDate.now()));
+        }
+    }
+}
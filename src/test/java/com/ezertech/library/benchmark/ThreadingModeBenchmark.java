@@ -0,0 +1,179 @@
+package com.ezertech.library.benchmark;
+
+import com.ezertech.library.LibraryApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares platform and virtual request threads under a mixed search/checkout load.
+ * <p>
+ * Boots the application twice on a random port, once per mode, and runs the same closed-loop load
+ * against each: {@value #CLIENTS} concurrent clients, 80% keyword searches and 20% checkout + return.
+ * Logs throughput and latency percentiles. Runs only with {@code -Dbenchmark=true}; set
+ * {@code -Dbenchmark.datasource.url=...} to measure against a real PostgreSQL instead of H2.
+ * <pre>
+ * mvn test -Dtest=ThreadingModeBenchmark -Dbenchmark=true
+ * </pre>
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadingModeBenchmark {
+
+    private static final int CLIENTS = 400;
+    private static final int BOOKS = 2_000;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final String[] KEYWORDS = CatalogSeeder.TITLE_WORDS;
+    private static final Pattern LOAN_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private record Report(String mode, long requests, long errors, double seconds, long[] latenciesNanos) {
+
+        double throughput() {
+            return requests / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-9s %10.0f req/s  p50 %7.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  errors %d",
+                    mode, throughput(), percentileMillis(50), percentileMillis(99), percentileMillis(99.9), errors);
+        }
+    }
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Report platform = run(false);
+        Report virtual = run(true);
+
+        log.info("Mixed search/checkout load, {} clients, {} s:\n{}\n{}",
+                CLIENTS, MEASUREMENT.toSeconds(), platform, virtual);
+    }
+
+    private Report run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        String url = System.getProperty("benchmark.datasource.url",
+                "jdbc:h2:mem:bench-" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(LibraryApplication.class)
+                .profiles("h2")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + url,
+                        "spring.threads.virtual.enabled=" + virtualThreads)
+                .run()) {
+            List<Long> bookIds = CatalogSeeder.seedBooks(app, BOOKS);
+            String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+
+            load(mode, baseUrl, bookIds, WARMUP);
+            return load(mode, baseUrl, bookIds, MEASUREMENT);
+        }
+    }
+
+    private static Report load(String mode, String baseUrl, List<Long> bookIds, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> perClient = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().executor(clients).build()) {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> client(http, baseUrl, bookIds, deadline, errors)));
+            }
+            for (Future<long[]> future : futures) {
+                perClient.add(future.get());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Report(mode, latencies.length, errors.get(), seconds, latencies);
+    }
+
+    private static long[] client(HttpClient http, String baseUrl, List<Long> bookIds, long deadline,
+                                 AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[1024];
+        int count = 0;
+
+        while (System.nanoTime() < deadline) {
+            long begin = System.nanoTime();
+            try {
+                if (random.nextInt(100) < 80) {
+                    String keyword = KEYWORDS[random.nextInt(KEYWORDS.length)];
+                    send(http, HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/search?keyword=" + keyword
+                            + "&page=" + random.nextInt(5) + "&size=20")).GET().build());
+                } else {
+                    checkoutAndReturn(http, baseUrl, bookIds.get(random.nextInt(bookIds.size())));
+                }
+            } catch (Exception ex) {
+                errors.incrementAndGet();
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - begin;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static void checkoutAndReturn(HttpClient http, String baseUrl, long bookId) throws Exception {
+        String body = String.format(
+                "{\"bookId\":%d,\"borrowerName\":\"Bench\",\"borrowerEmail\":\"bench@test.com\",\"loanDate\":\"%s\"}",
+                bookId, LocalDate.now());
+        HttpResponse<String> created = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/loans"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // Un 400 significa que otro cliente tiene el libro: es un resultado válido, no un error
+        if (created.statusCode() == 201) {
+            Matcher id = LOAN_ID.matcher(created.body());
+            if (id.find()) {
+                send(http, HttpRequest.newBuilder(URI.create(baseUrl + "/api/loans/" + id.group(1) + "/return"))
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build());
+            }
+        } else if (created.statusCode() >= 500) {
+            throw new IllegalStateException("Checkout failed with status " + created.statusCode());
+        }
+    }
+
+    private static void send(HttpClient http, HttpRequest request) throws Exception {
+        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 500) {
+            throw new IllegalStateException("Request failed with status " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ezertech.library.cache;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.model.enums.BookStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookCacheTest {
+
+    private final BookResponse book = new BookResponse(1L, "Refactoring", "Martin Fowler", "9780201485677",
+            1999, BookStatus.AVAILABLE, LocalDateTime.now(), 0L);
+
+    private SimpleMeterRegistry registry;
+    private BookCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new BookCache(100, Duration.ofMinutes(5), registry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testSecondLookupIsServedFromCache() {
+        cache.byId(1L, this::load);
+        Optional<BookResponse> cached = cache.byId(1L, this::load);
+
+        assertEquals(book, cached.orElseThrow());
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "books.by-id").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testMissingBooksAreNotCached() {
+        assertTrue(cache.byId(2L, id -> Optional.empty()).isEmpty());
+
+        assertEquals(book, cache.byId(2L, this::load).orElseThrow());
+    }
+
+    @Test
+    void testChangeEventEvictsByIdAndBothIsbns() {
+        cache.byId(1L, this::load);
+        cache.byIsbn(book.isbn(), isbn -> load(1L));
+        BookResponse renumbered = new BookResponse(1L, book.title(), book.author(), "9780134757599",
+                book.publicationYear(), BookStatus.BORROWED, book.createdAt(), 0L);
+        cache.byIsbn(renumbered.isbn(), isbn -> Optional.of(renumbered));
+
+        cache.onBookChanged(new BookChangedEvent(book, renumbered));
+        cache.byId(1L, this::load);
+        cache.byIsbn(book.isbn(), isbn -> load(1L));
+        cache.byIsbn(renumbered.isbn(), isbn -> load(1L));
+
+        assertEquals(5, loads.get());
+    }
+
+    private Optional<BookResponse> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(book);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ezertech.library.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.ITemplateEngine;
+import org.mockito.ArgumentCaptor;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.IWebContext;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FragmentCacheTest {
+
+    private ITemplateEngine templateEngine;
+    private FragmentCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        templateEngine = mock(ITemplateEngine.class);
+        when(templateEngine.process(eq("fragments/book-rows"), any(IContext.class)))
+                .thenAnswer(invocation -> "<tr>" + invocation.<IContext>getArgument(1).getVariable("books") + "</tr>");
+        cache = new FragmentCache(100, Duration.ofMinutes(1), "/library", templateEngine, new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testSameKeyIsRenderedOnce() {
+        String first = cache.render("book-rows:1", "fragments/book-rows", this::model);
+        String second = cache.render("book-rows:1", "fragments/book-rows", this::model);
+
+        assertEquals("<tr>1</tr>", first);
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+        verify(templateEngine, times(1)).process(eq("fragments/book-rows"), any(IContext.class));
+    }
+
+    @Test
+    void testNewVersionRendersAgain() {
+        cache.render("book-rows:1", "fragments/book-rows", this::model);
+        String next = cache.render("book-rows:2", "fragments/book-rows", this::model);
+
+        assertEquals("<tr>2</tr>", next);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testRendersWithoutRequestStateAndWithContextPath() {
+        cache.render("book-rows:1", "fragments/book-rows", this::model);
+
+        ArgumentCaptor<IContext> context = ArgumentCaptor.forClass(IContext.class);
+        verify(templateEngine).process(eq("fragments/book-rows"), context.capture());
+        // Ni sesión ni locale del visitante que provocó el fallo: el resultado es de todos
+        assertFalse(context.getValue() instanceof IWebContext);
+        assertEquals(Locale.ROOT, context.getValue().getLocale());
+        assertEquals("/library", context.getValue().getVariable("contextPath"));
+    }
+
+    private Map<String, Object> model() {
+        return Map.of("books", loads.incrementAndGet());
+    }
+}
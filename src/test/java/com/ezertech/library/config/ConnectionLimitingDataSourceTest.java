@@ -0,0 +1,106 @@
+package com.ezertech.library.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void testBlocksBeyondTheLimitUntilAConnectionIsClosed() throws Exception {
+        when(pool.getConnection()).thenReturn(connection);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 2, 50);
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection, times(1)).close();
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void testFailedCheckoutGivesThePermitBack() throws Exception {
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, 50);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void testWaitIsBoundedByPermitTimeoutPlusPoolTimeout() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, 100);
+        // La primera conexión se entrega; después Hikari agota su propio timeout antes de fallar
+        when(pool.getConnection()).thenReturn(connection).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            throw new SQLTransientConnectionException("pool timeout");
+        });
+
+        Connection first = dataSource.getConnection();
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        long permitWaitMillis = (System.nanoTime() - start) / 1_000_000;
+        first.close();
+
+        start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        long poolWaitMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Sin permiso no se llega al pool; con permiso solo cuenta la espera del pool
+        assertTrue(permitWaitMillis >= 100 && permitWaitMillis < 1_000, "permit wait " + permitWaitMillis);
+        assertTrue(poolWaitMillis >= 100 && poolWaitMillis < 1_000, "pool wait " + poolWaitMillis);
+        verify(pool, times(2)).getConnection();
+    }
+
+    @Test
+    void testVirtualThreadConfigSplitsTheConnectionTimeout() {
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setMaximumPoolSize(4);
+        hikari.setConnectionTimeout(3_000);
+        BeanPostProcessor postProcessor = VirtualThreadConfig.connectionLimitingPostProcessor(
+                new MockEnvironment().withProperty("library.datasource.pool-wait", "PT1S"));
+
+        ConnectionLimitingDataSource limited =
+                (ConnectionLimitingDataSource) postProcessor.postProcessAfterInitialization(hikari, "dataSource");
+
+        assertEquals(1_000, hikari.getConnectionTimeout());
+        assertEquals(2_000, limited.getPermitTimeoutMillis());
+        assertEquals(4, limited.availablePermits());
+    }
+
+    @Test
+    void testVirtualThreadConfigRejectsAPoolWaitAsLongAsTheTimeout() {
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setConnectionTimeout(1_000);
+        BeanPostProcessor postProcessor = VirtualThreadConfig.connectionLimitingPostProcessor(
+                new MockEnvironment().withProperty("library.datasource.pool-wait", "PT1S"));
+
+        assertThrows(IllegalStateException.class,
+                () -> postProcessor.postProcessAfterInitialization(hikari, "dataSource"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.ezertech.library.config;
+
+import com.ezertech.library.cache.FragmentCache;
+import com.ezertech.library.controller.page.HomeController;
+import com.ezertech.library.service.ITBookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HomeController.class)
+class StaticResourceConfigTest {
+
+    private static final String CSS = "/css/bootstrap.min.css";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
+    @MockitoBean
+    private ITBookService bookService;
+
+    @MockitoBean
+    private FragmentCache fragmentCache;
+
+    @Test
+    void testPagesLinkToContentHashedUrls() throws Exception {
+        when(bookService.getLibraryStats()).thenReturn(Map.of());
+        when(fragmentCache.render(anyString(), anyString(), any())).thenReturn("");
+        String versioned = resourceUrlProvider.getForLookupPath(CSS);
+
+        assertTrue(versioned.matches("/css/bootstrap\\.min-[0-9a-f]{32}\\.css"), versioned);
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("href=\"" + versioned + "\"")));
+    }
+
+    @Test
+    void testVersionedUrlIsImmutable() throws Exception {
+        mockMvc.perform(get(resourceUrlProvider.getForLookupPath(CSS)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    void testPlainUrlMustRevalidate() throws Exception {
+        mockMvc.perform(get(CSS))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void testServesPrecompressedVariant() throws Exception {
+        // Las escribe la etapa de assets de Maven tras compilar: si falta, el build está roto
+        assertTrue(new ClassPathResource("static" + CSS + ".br").exists(), "missing precompressed variant");
+        assertTrue(new ClassPathResource("static" + CSS + ".gz").exists(), "missing precompressed variant");
+
+        mockMvc.perform(get(resourceUrlProvider.getForLookupPath(CSS)).header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+}
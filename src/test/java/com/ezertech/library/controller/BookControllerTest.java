@@ -1,8 +1,10 @@
 package com.ezertech.library.controller;
 
+import com.ezertech.library.cache.CatalogVersion;
 import com.ezertech.library.dto.request.BookRequest;
 import com.ezertech.library.dto.response.BookResponse;
 import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.service.ITBookImportService;
 import com.ezertech.library.service.ITBookService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +17,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.containsString;
@@ -33,11 +36,17 @@ class BookControllerTest {
     @MockitoBean
     private ITBookService bookService;
 
+    @MockitoBean
+    private ITBookImportService bookImportService;
+
+    @MockitoBean
+    private CatalogVersion catalogVersion;
+
     @Test
     void testCreateBook() throws Exception {
         BookResponse response = new BookResponse(
                 1L, "Clean Code", "Robert C. Martin", "9780132350884",
-                2008, BookStatus.AVAILABLE, LocalDateTime.now()
+                2008, BookStatus.AVAILABLE, LocalDateTime.now(), 0L
         );
 
         Mockito.when(bookService.create(any(BookRequest.class))).thenReturn(response);
@@ -62,22 +71,53 @@ class BookControllerTest {
     void testFindById() throws Exception {
         BookResponse response = new BookResponse(
                 1L, "Refactoring", "Martin Fowler", "9780201485677",
-                1999, BookStatus.AVAILABLE, LocalDateTime.now()
+                1999, BookStatus.AVAILABLE, LocalDateTime.now(), 0L
         );
 
         Mockito.when(bookService.findById(1L)).thenReturn(response);
 
         mockMvc.perform(get("/api/books/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-0\""))
                 .andExpect(jsonPath("$.title").value("Refactoring"))
                 .andExpect(jsonPath("$.author").value("Martin Fowler"));
     }
 
+    @Test
+    void testFindByIdNotModifiedForCurrentEtag() throws Exception {
+        BookResponse response = new BookResponse(
+                1L, "Refactoring", "Martin Fowler", "9780201485677",
+                1999, BookStatus.AVAILABLE, LocalDateTime.now(), 3L
+        );
+
+        Mockito.when(bookService.findById(1L)).thenReturn(response);
+
+        mockMvc.perform(get("/api/books/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/books/1").header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""));
+    }
+
+    @Test
+    void testSearchNotModifiedSkipsTheQuery() throws Exception {
+        Mockito.when(catalogVersion.etag()).thenReturn("W/\"abc-7\"");
+
+        mockMvc.perform(get("/api/books/search").param("keyword", "java")
+                        .header("If-None-Match", "W/\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc-7\""));
+
+        Mockito.verifyNoInteractions(bookService);
+    }
+
     @Test
     void testUpdateBook() throws Exception {
         BookResponse response = new BookResponse(
                 1L, "Domain-Driven Design", "Eric Evans", "9780321125217",
-                2003, BookStatus.AVAILABLE, LocalDateTime.now()
+                2003, BookStatus.AVAILABLE, LocalDateTime.now(), 0L
         );
 
         Mockito.when(bookService.update(eq(1L), any(BookRequest.class))).thenReturn(response);
@@ -120,4 +160,19 @@ class BookControllerTest {
                 .andExpect(content().string(containsString("availableBooks")))
                 .andExpect(content().string(containsString("borrowedBooks")));
     }
+
+    @Test
+    void testSuggestAvailable() throws Exception {
+        BookResponse response = new BookResponse(
+                1L, "Clean Code", "Robert C. Martin", "9780132350884",
+                2008, BookStatus.AVAILABLE, LocalDateTime.now(), 0L
+        );
+
+        Mockito.when(bookService.suggestAvailable("cle", 5)).thenReturn(List.of(response));
+
+        mockMvc.perform(get("/api/books/available/suggest").param("q", "cle").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].title").value("Clean Code"));
+    }
 }
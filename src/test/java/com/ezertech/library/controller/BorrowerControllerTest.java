@@ -0,0 +1,66 @@
+package com.ezertech.library.controller;
+
+import com.ezertech.library.dto.response.BorrowerSummaryResponse;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.exception.BorrowerNotFoundException;
+import com.ezertech.library.service.ITBorrowerService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BorrowerController.class)
+@ExtendWith(SpringExtension.class)
+class BorrowerControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ITBorrowerService borrowerService;
+
+    @Test
+    void testGetSummary() throws Exception {
+        Mockito.when(borrowerService.getSummary("andres@test.com"))
+                .thenReturn(new BorrowerSummaryResponse("andres@test.com", "Andrés", 2, 1, 15));
+
+        mockMvc.perform(get("/api/borrowers/andres@test.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeLoans").value(2))
+                .andExpect(jsonPath("$.overdueLoans").value(1))
+                .andExpect(jsonPath("$.lifetimeLoans").value(15));
+    }
+
+    @Test
+    void testGetSummaryOfUnknownBorrower() throws Exception {
+        Mockito.when(borrowerService.getSummary("nobody@test.com"))
+                .thenThrow(new BorrowerNotFoundException("Borrower not found with email: nobody@test.com"));
+
+        mockMvc.perform(get("/api/borrowers/nobody@test.com"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testFindLoansDefaultsToNewestFirst() throws Exception {
+        LoanResponse loan = new LoanResponse(1L, 10L, "Clean Code", "Andrés", "andres@test.com",
+                LocalDate.now(), LocalDate.now().plusDays(14), null);
+        Mockito.when(borrowerService.findLoans("andres@test.com", null, 10, "loanDate", "DESC", false))
+                .thenReturn(PageResponse.keyset(List.of(loan), 10, "next-token"));
+
+        mockMvc.perform(get("/api/borrowers/andres@test.com/loans"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].bookTitle").value("Clean Code"))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+    }
+}
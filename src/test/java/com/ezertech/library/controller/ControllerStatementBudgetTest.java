@@ -0,0 +1,96 @@
+package com.ezertech.library.controller;
+
+import com.ezertech.library.dto.request.BookRequest;
+import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.metrics.QueryCounter;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.service.ITBookService;
+import com.ezertech.library.service.ITLoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static com.ezertech.library.metrics.SqlStatementBudget.assertMaxStatements;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the read endpoints: a page must not load the book of each loan on its own,
+ * and an unchanged book list comes from the fragment cache.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:statement-budget;MODE=PostgreSQL;"
+        + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ControllerStatementBudgetTest {
+
+    private static final int LOANS = 15;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ITBookService bookService;
+
+    @Autowired
+    private ITLoanService loanService;
+
+    private static Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        if (bookId != null) {
+            return;
+        }
+        for (int i = 0; i < LOANS; i++) {
+            BookResponse book = bookService.create(new BookRequest(null, "Refactoring vol. " + i, "Martin Fowler",
+                    String.format("979%010d", i), 1999, BookStatus.AVAILABLE));
+            loanService.create(new LoanRequest(book.id(), "Reader " + i, "reader" + i + "@test.com",
+                    LocalDate.now()));
+            bookId = book.id();
+        }
+    }
+
+    @Test
+    void testLoanPageStaysWithinBudget() throws Throwable {
+        QueryCounter.Scope scope = assertMaxStatements(2, () ->
+                mockMvc.perform(get("/api/loans/search").param("page", "0").param("size", "10"))
+                        .andExpect(status().isOk()));
+
+        assertTrue(scope.rows() >= 10);
+    }
+
+    @Test
+    void testLoanSliceStaysWithinBudget() throws Throwable {
+        assertMaxStatements(1, () ->
+                mockMvc.perform(get("/api/loans/search").param("size", "10").param("withTotal", "false"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void testBookLookupStaysWithinBudget() throws Throwable {
+        assertMaxStatements(1, () ->
+                mockMvc.perform(get("/api/books/{id}", bookId))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void testUnchangedBookPageIsServedWithoutQueries() throws Throwable {
+        mockMvc.perform(get("/books")).andExpect(status().isOk());
+
+        assertMaxStatements(0, () ->
+                mockMvc.perform(get("/books"))
+                        .andExpect(status().isOk())
+                        .andExpect(content().string(containsString("Refactoring vol. 0"))));
+    }
+}
@@ -83,7 +83,7 @@ class LoanControllerTest {
                 List.of(loan), 0, 10, 1, 1
         );
 
-        Mockito.when(loanService.search(0, 10, "id", "ASC")).thenReturn(pageResponse);
+        Mockito.when(loanService.search(null, 0, 10, "id", "ASC")).thenReturn(pageResponse);
 
         mockMvc.perform(get("/api/loans/search")
                         .param("page", "0")
@@ -0,0 +1,72 @@
+package com.ezertech.library.controller;
+
+import com.ezertech.library.dto.response.LoanActivityResponse;
+import com.ezertech.library.dto.response.TopBookResponse;
+import com.ezertech.library.exception.InvalidReportRangeException;
+import com.ezertech.library.service.ITReportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReportController.class)
+@ExtendWith(SpringExtension.class)
+class ReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ITReportService reportService;
+
+    @Test
+    void testDailyActivityDefaultsToLastThirtyDays() throws Exception {
+        LocalDate today = LocalDate.now();
+        Mockito.when(reportService.dailyActivity(today.minusDays(29), today))
+                .thenReturn(List.of(new LoanActivityResponse(today, 4, 1)));
+
+        mockMvc.perform(get("/api/reports/loans/daily"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].loansOpened").value(4))
+                .andExpect(jsonPath("$[0].loansReturned").value(1));
+    }
+
+    @Test
+    void testTopBooks() throws Exception {
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 31);
+        Mockito.when(reportService.topBooks(from, to, 5))
+                .thenReturn(List.of(new TopBookResponse(10L, "Clean Code", 12L)));
+
+        mockMvc.perform(get("/api/reports/books/top")
+                        .param("from", "2026-01-01")
+                        .param("to", "2026-01-31")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Clean Code"))
+                .andExpect(jsonPath("$[0].loans").value(12));
+    }
+
+    @Test
+    void testInvalidRangeIsBadRequest() throws Exception {
+        LocalDate from = LocalDate.of(2026, 2, 1);
+        LocalDate to = LocalDate.of(2026, 1, 1);
+        Mockito.when(reportService.topBorrowers(from, to, 10))
+                .thenThrow(new InvalidReportRangeException("Range start 2026-02-01 is after its end 2026-01-01"));
+
+        mockMvc.perform(get("/api/reports/borrowers/top")
+                        .param("from", "2026-02-01")
+                        .param("to", "2026-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
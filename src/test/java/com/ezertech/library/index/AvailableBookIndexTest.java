@@ -0,0 +1,96 @@
+package com.ezertech.library.index;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailableBookIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private AvailableBookIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(
+                new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884", 2008, BookStatus.AVAILABLE, LocalDateTime.now(), 0L),
+                new Book(2L, "Refactoring", "Martin Fowler", "9780201485677", 1999, BookStatus.AVAILABLE, LocalDateTime.now(), 0L),
+                new Book(3L, "Effective Java", "Joshua Bloch", "9780134685991", 2018, BookStatus.BORROWED, LocalDateTime.now(), 0L)
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void testMatchesWordStartsOfTitleAndAuthorIgnoringCase() {
+        assertEquals(List.of(1L), ids("COD"));
+        assertEquals(List.of(1L, 2L), ids("mart"));
+        assertTrue(ids("actoring").isEmpty());
+    }
+
+    @Test
+    void testMatchesIsbnPrefix() {
+        assertEquals(List.of(2L), ids("97802"));
+    }
+
+    @Test
+    void testOnlyAvailableBooksAndUpToLimit() {
+        assertTrue(ids("effective").isEmpty());
+        assertEquals(1, index.suggest("9780", 1).orElseThrow().size());
+    }
+
+    @Test
+    void testCheckoutAndReturnMoveBooksOutAndIn() {
+        BookResponse available = new BookResponse(1L, "Clean Code", "Robert C. Martin", "9780132350884",
+                2008, BookStatus.AVAILABLE, null, 0L);
+        BookResponse borrowed = available.withStatus(BookStatus.BORROWED);
+
+        index.onBookChanged(new BookChangedEvent(available, borrowed));
+        assertTrue(ids("clean").isEmpty());
+
+        index.onBookChanged(new BookChangedEvent(borrowed, available));
+        assertEquals(List.of(1L), ids("clean"));
+    }
+
+    @Test
+    void testRebuildCorrectsEventsAppliedOutOfOrder() {
+        BookResponse available = new BookResponse(1L, "Clean Code", "Robert C. Martin", "9780132350884",
+                2008, BookStatus.AVAILABLE, null, 0L);
+        BookResponse borrowed = available.withStatus(BookStatus.BORROWED);
+
+        // La devolución confirmó después del préstamo, pero su evento llegó antes
+        index.onBookChanged(new BookChangedEvent(borrowed, available));
+        index.onBookChanged(new BookChangedEvent(available, borrowed));
+        assertTrue(ids("clean").isEmpty());
+
+        index.rebuild();
+        assertEquals(List.of(1L), ids("clean"));
+    }
+
+    @Test
+    void testEmptyQuerySuggestsNothing() {
+        assertTrue(ids("  ").isEmpty());
+    }
+
+    private List<Long> ids(String prefix) {
+        return index.suggest(prefix, 10).orElseThrow().stream().map(BookResponse::id).toList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.ezertech.library.index;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The index and the database fallback must hand out the same pages for the same search, otherwise a
+ * client paging through the results skips or repeats books when the source switches between pages.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:search-ordering;MODE=PostgreSQL;"
+        + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class BookSearchIndexOrderingTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    // Mayúsculas mezcladas, títulos y autores repetidos: el orden depende de cómo se comparan y de los empates
+    private static final String[][] BOOKS = {
+            {"java", "bloch"}, {"Java", "Bloch"}, {"JAVA basics", "zeta"}, {"java", "Alpha"},
+            {"Jakarta EE", "bloch"}, {"apache Java", "ZETA"}, {"Java_Patterns", "beta"}, {"java[2]", "Beta"},
+            {"Zebra java", "alpha"}, {"javascript", "Bloch"}
+    };
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        if (bookRepository.count() == 0) {
+            for (int i = 0; i < BOOKS.length; i++) {
+                bookRepository.save(Book.builder()
+                        .title(BOOKS[i][0])
+                        .author(BOOKS[i][1])
+                        .isbn(String.format("977%010d", i))
+                        .publicationYear(2000 + i % 3)
+                        .status(i % 2 == 0 ? BookStatus.AVAILABLE : BookStatus.BORROWED)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            }
+            bookSearchIndex.rebuild();
+        }
+    }
+
+    @Test
+    void testIndexAndDatabasePageInTheSameOrder() {
+        for (String sortBy : List.of("title", "author", "publicationYear", "status", "id")) {
+            for (String direction : List.of("ASC", "DESC")) {
+                for (String keyword : List.of("ja", "JAVA")) {
+                    assertEquals(databaseOrder(keyword, sortBy, direction), indexOrder(keyword, sortBy, direction),
+                            keyword + " by " + sortBy + " " + direction);
+                }
+            }
+        }
+    }
+
+    private List<Long> indexOrder(String keyword, String sortBy, String direction) {
+        List<Long> ids = new ArrayList<>();
+        for (int page = 0; page * PAGE_SIZE < BOOKS.length; page++) {
+            ids.addAll(bookSearchIndex.search(keyword, false, page, PAGE_SIZE, sortBy, direction).orElseThrow().ids());
+        }
+        return ids;
+    }
+
+    private List<Long> databaseOrder(String keyword, String sortBy, String direction) {
+        List<Long> ids = new ArrayList<>();
+        for (int page = 0; page * PAGE_SIZE < BOOKS.length; page++) {
+            bookRepository.searchByKeyword(keyword,
+                            PageRequest.of(page, PAGE_SIZE, BookSearchIndex.sortOf(sortBy, direction)))
+                    .map(BookResponse::id)
+                    .forEach(ids::add);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ezertech.library.index;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(
+                new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884", 2008, BookStatus.AVAILABLE, LocalDateTime.now(), 0L),
+                new Book(2L, "Refactoring", "Martin Fowler", "9780201485677", 1999, BookStatus.AVAILABLE, LocalDateTime.now(), 0L),
+                new Book(3L, "Effective Java", "Joshua Bloch", "9780134685991", 2018, BookStatus.BORROWED, LocalDateTime.now(), 0L)
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void testSubstringMatchesTitleOrAuthorIgnoringCase() {
+        Optional<BookSearchIndex.Hits> hits = index.search("MARTIN", false, 0, 10, "id", "ASC");
+
+        assertTrue(hits.isPresent());
+        assertEquals(List.of(1L, 2L), hits.get().ids());
+        assertEquals(2, hits.get().total());
+    }
+
+    @Test
+    void testShortKeywordScansEveryEntry() {
+        Optional<BookSearchIndex.Hits> hits = index.search("va", false, 0, 10, "id", "ASC");
+
+        assertEquals(List.of(3L), hits.orElseThrow().ids());
+    }
+
+    @Test
+    void testPrefixOnlyMatchesWordStarts() {
+        assertEquals(List.of(2L), index.search("fow", true, 0, 10, "id", "ASC").orElseThrow().ids());
+        assertTrue(index.search("owler", true, 0, 10, "id", "ASC").orElseThrow().ids().isEmpty());
+    }
+
+    @Test
+    void testPagesAndSortsMatches() {
+        BookSearchIndex.Hits hits = index.search("e", false, 1, 2, "title", "DESC").orElseThrow();
+
+        assertEquals(3, hits.total());
+        assertEquals(List.of(1L), hits.ids());
+    }
+
+    @Test
+    void testAppliesChangesAfterLoad() {
+        BookResponse before = new BookResponse(2L, "Refactoring", "Martin Fowler", "9780201485677",
+                1999, BookStatus.AVAILABLE, null, 0L);
+        BookResponse after = new BookResponse(2L, "Refactoring 2nd Edition", "Martin Fowler", "9780134757599",
+                2018, BookStatus.AVAILABLE, null, 0L);
+
+        index.onBookChanged(new BookChangedEvent(before, after));
+        assertEquals(List.of(2L), index.search("edition", false, 0, 10, "id", "ASC").orElseThrow().ids());
+
+        index.onBookChanged(new BookChangedEvent(after, null));
+        assertTrue(index.search("fowler", false, 0, 10, "id", "ASC").orElseThrow().ids().isEmpty());
+    }
+
+    @Test
+    void testUnsupportedQueriesFallBackToDatabase() {
+        assertTrue(index.search("java", false, 0, 10, "unknown", "ASC").isEmpty());
+        assertTrue(index.search("ja%a", false, 0, 10, "id", "ASC").isEmpty());
+    }
+}
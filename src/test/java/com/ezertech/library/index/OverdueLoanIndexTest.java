@@ -0,0 +1,97 @@
+package com.ezertech.library.index;
+
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.event.LoanChangedEvent;
+import com.ezertech.library.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueLoanIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @InjectMocks
+    private OverdueLoanIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(loanRepository.findOpenLoanDueDates()).thenReturn(List.of(
+                dueDate(1L, TODAY.minusDays(3)),
+                dueDate(2L, TODAY.minusDays(10)),
+                dueDate(3L, TODAY.minusDays(3)),
+                dueDate(4L, TODAY.plusDays(5))
+        ));
+        index.load();
+    }
+
+    @Test
+    void testLoadSplitsOverdueFromDue() {
+        assertEquals(3, index.overdueCount().orElseThrow());
+        assertEquals(List.of(2L, 1L, 3L), index.overdue(0, 10).orElseThrow().ids());
+    }
+
+    @Test
+    void testPagesWalkAcrossBuckets() {
+        OverdueLoanIndex.Hits second = index.overdue(1, 2).orElseThrow();
+
+        assertEquals(List.of(3L), second.ids());
+        assertEquals(3, second.total());
+        assertTrue(index.overdue(2, 2).orElseThrow().ids().isEmpty());
+    }
+
+    @Test
+    void testOpenAndCloseMoveTheCount() {
+        LoanResponse late = loan(9L, TODAY.minusDays(1), null);
+        index.onLoanChanged(new LoanChangedEvent(null, late));
+        assertEquals(4, index.overdueCount().orElseThrow());
+
+        index.onLoanChanged(new LoanChangedEvent(late, loan(9L, TODAY.minusDays(1), TODAY)));
+        index.onLoanChanged(new LoanChangedEvent(loan(2L, TODAY.minusDays(10), null),
+                loan(2L, TODAY.minusDays(10), TODAY)));
+
+        assertEquals(2, index.overdueCount().orElseThrow());
+        assertEquals(List.of(1L, 3L), index.overdue(0, 10).orElseThrow().ids());
+    }
+
+    @Test
+    void testSweepOnlyMovesExpiredBuckets() {
+        index.onLoanChanged(new LoanChangedEvent(null, loan(9L, TODAY, null)));
+        index.sweep();
+
+        // Vence hoy: todavía no está atrasado
+        assertEquals(3, index.overdueCount().orElseThrow());
+    }
+
+    private static LoanRepository.DueDateView dueDate(Long id, LocalDate dueDate) {
+        return new LoanRepository.DueDateView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDate getDueDate() {
+                return dueDate;
+            }
+        };
+    }
+
+    private static LoanResponse loan(Long id, LocalDate dueDate, LocalDate returnDate) {
+        return new LoanResponse(id, 1L, "Clean Code", "Andrés", "andres@test.com",
+                dueDate.minusDays(14), dueDate, returnDate);
+    }
+}
@@ -0,0 +1,218 @@
+package com.ezertech.library.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator.
+ * <p>
+ * Requests start on a fixed schedule of {@code ratePerSecond}, whether or not earlier ones have finished,
+ * so a slow server builds up a queue instead of slowing the clients down. Each request's latency is
+ * measured from its scheduled start, which keeps that queueing time in the percentiles (no coordinated
+ * omission). Each arrival picks an operation at random according to the weights of the mix.
+ */
+final class LoadGenerator {
+
+    enum Outcome {
+        OK, REJECTED, ERROR;
+
+        /** 2xx is a success, 4xx an expected business refusal (book taken, loan already returned), the rest errors. */
+        static Outcome of(int status) {
+            if (status >= 200 && status < 300) {
+                return OK;
+            }
+            return status >= 400 && status < 500 ? REJECTED : ERROR;
+        }
+    }
+
+    @FunctionalInterface
+    interface Operation {
+        Outcome call() throws Exception;
+    }
+
+    private record Weighted(String name, int weight, Operation operation) {}
+
+    private final List<Weighted> mix = new ArrayList<>();
+    private int totalWeight;
+
+    private final double ratePerSecond;
+    private final int maxInFlight;
+
+    LoadGenerator(double ratePerSecond, int maxInFlight) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    LoadGenerator operation(String name, int weight, Operation operation) {
+        if (weight > 0) {
+            mix.add(new Weighted(name, weight, operation));
+            totalWeight += weight;
+        }
+        return this;
+    }
+
+    /** Runs the schedule for {@code duration} and returns what was recorded; call it once first as a warm-up. */
+    Report run(Duration duration) {
+        if (mix.isEmpty()) {
+            throw new IllegalStateException("The request mix is empty");
+        }
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        mix.forEach(w -> stats.put(w.name(), new Stats()));
+
+        double intervalNanos = 1_000_000_000d / ratePerSecond;
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAdder dropped = new LongAdder();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduled = start + (long) (i * intervalNanos);
+                if (scheduled - end >= 0) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // Tope de peticiones en vuelo para no agotar la memoria si el servidor se queda atrás
+                if (inFlight.get() >= maxInFlight) {
+                    dropped.increment();
+                    continue;
+                }
+                Weighted next = pick();
+                Stats target = stats.get(next.name());
+                inFlight.incrementAndGet();
+                workers.submit(() -> {
+                    try {
+                        execute(next.operation(), scheduled, target);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Report(ratePerSecond, seconds, dropped.sum(), stats);
+    }
+
+    private Weighted pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Weighted weighted : mix) {
+            roll -= weighted.weight();
+            if (roll < 0) {
+                return weighted;
+            }
+        }
+        return mix.getLast();
+    }
+
+    private static void execute(Operation operation, long scheduled, Stats stats) {
+        Outcome outcome;
+        try {
+            outcome = operation.call();
+        } catch (Exception ex) {
+            outcome = Outcome.ERROR;
+        }
+        stats.latencies.recordValue(Math.max(0, System.nanoTime() - scheduled));
+        switch (outcome) {
+            case OK -> stats.ok.increment();
+            case REJECTED -> stats.rejected.increment();
+            case ERROR -> stats.errors.increment();
+        }
+    }
+
+    static final class Stats {
+        // Nanosegundos con 3 cifras significativas; el histograma crece solo según haga falta
+        final Histogram latencies = new ConcurrentHistogram(3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        long count() {
+            return latencies.getTotalCount();
+        }
+    }
+
+    record Report(double offeredRate, double seconds, long dropped, Map<String, Stats> operations) {
+
+        private static final double NANOS_PER_MILLI = 1_000_000d;
+
+        long requests() {
+            return operations.values().stream().mapToLong(Stats::count).sum();
+        }
+
+        long errors() {
+            return operations.values().stream().mapToLong(s -> s.errors.sum()).sum() + dropped;
+        }
+
+        double errorRate() {
+            long attempted = requests() + dropped;
+            return attempted == 0 ? 0 : (double) errors() / attempted;
+        }
+
+        Histogram overall() {
+            Histogram all = new Histogram(3);
+            operations.values().forEach(s -> all.add(s.latencies));
+            return all;
+        }
+
+        /**
+         * Writes a summary table followed by the full percentile distribution of every operation in the
+         * HdrHistogram {@code .hgrm} format (values in milliseconds), so two runs can be diffed or plotted.
+         */
+        void writeTo(Path file, String header) throws IOException {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+                out.println(header);
+                out.printf("# offered %.1f req/s, achieved %.1f req/s over %.1f s, dropped %d%n%n",
+                        offeredRate, requests() / seconds, seconds, dropped);
+                out.printf("%-10s %9s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                        "operation", "count", "req/s", "rejected", "errors", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+                operations.forEach((name, stats) -> summaryLine(out, name, stats.latencies,
+                        stats.rejected.sum(), stats.errors.sum()));
+                summaryLine(out, "all", overall(),
+                        operations.values().stream().mapToLong(s -> s.rejected.sum()).sum(), errors());
+
+                operations.forEach((name, stats) -> {
+                    out.printf("%n## %s%n", name);
+                    stats.latencies.outputPercentileDistribution(out, NANOS_PER_MILLI);
+                });
+            }
+        }
+
+        private void summaryLine(PrintStream out, String name, Histogram histogram, long rejected, long errors) {
+            out.printf("%-10s %9d %9.1f %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    rejected,
+                    errors,
+                    histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(95) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                    histogram.getMaxValue() / NANOS_PER_MILLI);
+        }
+    }
+}
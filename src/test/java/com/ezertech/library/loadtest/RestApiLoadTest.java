@@ -0,0 +1,198 @@
+package com.ezertech.library.loadtest;
+
+import com.ezertech.library.LibraryApplication;
+import com.ezertech.library.benchmark.CatalogSeeder;
+import com.ezertech.library.loadtest.LoadGenerator.Outcome;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of the REST API at an open-model arrival rate.
+ * <p>
+ * Boots the application on a random port against an in-memory H2 database and sends a mix of book
+ * searches, lookups by id, checkouts and returns. The report (throughput, p50/p95/p99/p99.9 and the full
+ * latency distribution per operation) goes to {@code target/load-test/}; keep reports from two builds to
+ * compare them. Runs only with {@code -Dloadtest=true}:
+ * <pre>
+ * mvn test -Dtest=RestApiLoadTest -Dloadtest=true -Dload.rate=500 -Dload.duration=PT60S
+ * </pre>
+ * Settings (system properties): {@code load.rate} requests per second, {@code load.duration},
+ * {@code load.warmup}, {@code load.mix} as {@code name:weight} pairs over {@code search}, {@code get},
+ * {@code checkout} and {@code return}, {@code load.books}, {@code load.max-in-flight},
+ * {@code load.max-error-rate}, {@code load.report-dir} and {@code load.datasource.url}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class RestApiLoadTest {
+
+    private static final String[] KEYWORDS = CatalogSeeder.TITLE_WORDS;
+    private static final Pattern LOAN_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static ConfigurableApplicationContext app;
+    private static ExecutorService clientThreads;
+    private static HttpClient http;
+    private static String baseUrl;
+    private static final List<Long> bookIds = new ArrayList<>();
+    private static final Queue<Long> openLoans = new ConcurrentLinkedQueue<>();
+
+    @BeforeAll
+    static void startApplication() {
+        app = new SpringApplicationBuilder(LibraryApplication.class)
+                .profiles("h2")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + System.getProperty("load.datasource.url",
+                                "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"),
+                        "logging.level.root=WARN",
+                        "logging.level.com.ezertech.library.loadtest=INFO")
+                .run();
+        baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+
+        bookIds.addAll(CatalogSeeder.seedBooks(app, Integer.getInteger("load.books", 2_000)));
+
+        clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder().executor(clientThreads).connectTimeout(REQUEST_TIMEOUT).build();
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        if (http != null) {
+            http.close();
+            clientThreads.close();
+        }
+        if (app != null) {
+            app.close();
+        }
+    }
+
+    @Test
+    void restApiUnderOpenModelLoad() throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        String mix = System.getProperty("load.mix", "search:60,get:20,checkout:10,return:10");
+        int maxInFlight = Integer.getInteger("load.max-in-flight", 2_000);
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+        LoadGenerator generator = new LoadGenerator(rate, maxInFlight);
+        Map<String, LoadGenerator.Operation> operations = operations();
+        parseMix(mix).forEach((name, weight) -> {
+            LoadGenerator.Operation operation = operations.get(name);
+            if (operation == null) {
+                throw new IllegalArgumentException("Unknown operation '" + name + "' in load.mix, expected one of "
+                        + operations.keySet());
+            }
+            generator.operation(name, weight, operation);
+        });
+
+        generator.run(warmup);
+        LoadGenerator.Report report = generator.run(duration);
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = Path.of(System.getProperty("load.report-dir", "target/load-test"), "load-" + timestamp + ".txt");
+        report.writeTo(file, String.format("# REST API load test %s%n# rate=%s/s warmup=%s duration=%s mix=%s books=%d",
+                timestamp, rate, warmup, duration, mix, bookIds.size()));
+        log.info("Load test report written to {}", file.toAbsolutePath());
+
+        assertTrue(report.errorRate() <= maxErrorRate,
+                String.format("Error rate %.4f above %.4f, see %s", report.errorRate(), maxErrorRate, file));
+    }
+
+    private static Map<String, LoadGenerator.Operation> operations() {
+        Map<String, LoadGenerator.Operation> operations = new LinkedHashMap<>();
+        operations.put("search", () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return send(get("/api/books/search?keyword=" + KEYWORDS[random.nextInt(KEYWORDS.length)]
+                    + "&page=" + random.nextInt(5) + "&size=20"));
+        });
+        operations.put("get", () -> send(get("/api/books/" + randomBookId())));
+        operations.put("checkout", RestApiLoadTest::checkout);
+        operations.put("return", () -> {
+            Long loanId = openLoans.poll();
+            // Sin préstamos abiertos no hay nada que devolver: cuenta como rechazo, no como error
+            if (loanId == null) {
+                return Outcome.REJECTED;
+            }
+            return send(request("/api/loans/" + loanId + "/return")
+                    .PUT(HttpRequest.BodyPublishers.noBody())
+                    .build());
+        });
+        return operations;
+    }
+
+    private static Outcome checkout() throws Exception {
+        String body = String.format(
+                "{\"bookId\":%d,\"borrowerName\":\"Load\",\"borrowerEmail\":\"load@test.com\",\"loanDate\":\"%s\"}",
+                randomBookId(), LocalDate.now());
+        HttpResponse<String> response = http.send(request("/api/loans")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 201) {
+            Matcher id = LOAN_ID.matcher(response.body());
+            if (id.find()) {
+                openLoans.add(Long.parseLong(id.group(1)));
+            }
+        }
+        return Outcome.of(response.statusCode());
+    }
+
+    private static long randomBookId() {
+        return bookIds.get(ThreadLocalRandom.current().nextInt(bookIds.size()));
+    }
+
+    private static HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private static HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private static Outcome send(HttpRequest request) throws Exception {
+        return Outcome.of(http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry '" + entry + "', expected name:weight");
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ezertech.library.metrics;
+
+import com.ezertech.library.exception.BookNotFoundException;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.service.BookServiceImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallMetricsAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint call;
+
+    @Mock
+    private Signature signature;
+
+    private SimpleMeterRegistry registry;
+    private CallMetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        aspect = new CallMetricsAspect(registry);
+        when(call.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    void record_timesSuccessfulCallsByComponentAndMethod() throws Throwable {
+        when(call.getTarget()).thenReturn(mock(BookServiceImpl.class));
+        when(signature.getName()).thenReturn("findById");
+        when(call.proceed()).thenReturn("result");
+
+        assertEquals("result", aspect.record(call));
+
+        Timer timer = registry.find(CallMetricsAspect.CALLS)
+                .tags("component", "ITBookService", "method", "findById", "exception", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertNull(registry.find(CallMetricsAspect.ERRORS).counter());
+    }
+
+    @Test
+    void record_countsErrorsByExceptionType() throws Throwable {
+        when(call.getTarget()).thenReturn(mock(BookServiceImpl.class));
+        when(signature.getName()).thenReturn("findById");
+        when(call.proceed()).thenThrow(new BookNotFoundException("Book not found with id: 1"));
+
+        assertThrows(BookNotFoundException.class, () -> aspect.record(call));
+
+        Counter errors = registry.find(CallMetricsAspect.ERRORS)
+                .tags("component", "ITBookService", "exception", "BookNotFoundException")
+                .counter();
+        assertNotNull(errors);
+        assertEquals(1, errors.count());
+        assertNotNull(registry.find(CallMetricsAspect.CALLS).tag("exception", "BookNotFoundException").timer());
+    }
+
+    @Test
+    void component_usesRepositoryInterfaceOfJdkProxy() {
+        Object repository = Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{BookRepository.class}, (proxy, method, args) -> null);
+
+        assertEquals("BookRepository", CallMetricsAspect.component(repository));
+    }
+}
@@ -0,0 +1,32 @@
+package com.ezertech.library.metrics;
+
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Asserts how much SQL a piece of code issues, counted by the datasource proxy, so it only works in
+ * tests that start the application context:
+ * <pre>
+ * SqlStatementBudget.assertMaxStatements(2, () -&gt; mockMvc.perform(get("/api/loans/search")));
+ * </pre>
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    /** Runs {@code call} and fails if it executed more than {@code maxStatements}; returns the tally for further checks. */
+    public static QueryCounter.Scope assertMaxStatements(long maxStatements, Executable call) throws Throwable {
+        QueryCounter.Scope scope = QueryCounter.open();
+        try {
+            call.execute();
+        } finally {
+            scope.close();
+        }
+        assertTrue(scope.statements() <= maxStatements, () -> String.format(
+                "Expected at most %d SQL statements but %d were executed (%d rows, %d ms)",
+                maxStatements, scope.statements(), scope.rows(), scope.elapsedMillis()));
+        return scope;
+    }
+}
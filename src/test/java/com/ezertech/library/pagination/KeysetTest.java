@@ -0,0 +1,81 @@
+package com.ezertech.library.pagination;
+
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.exception.InvalidCursorException;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetTest {
+
+    private static final Set<String> SORTS = Set.of("id", "title");
+
+    @Test
+    void testCursorRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor("title", true, "Clean Code", 7L);
+
+        KeysetCursor decoded = Keyset.resolve(cursor.encode(), 10, "title", "desc", SORTS);
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void testEmptyTokenStartsFromFirstPage() {
+        assertNull(Keyset.resolve("", 10, "title", "ASC", SORTS));
+    }
+
+    @Test
+    void testRejectsCursorFromAnotherSort() {
+        String token = new KeysetCursor("title", false, "Clean Code", 7L).encode();
+
+        assertThrows(InvalidCursorException.class, () -> Keyset.resolve(token, 10, "title", "DESC", SORTS));
+        assertThrows(InvalidCursorException.class, () -> Keyset.resolve(token, 10, "id", "ASC", SORTS));
+    }
+
+    @Test
+    void testRejectsGarbageAndUnsupportedSorts() {
+        assertThrows(InvalidCursorException.class, () -> Keyset.resolve("not a cursor!", 10, "id", "ASC", SORTS));
+        assertThrows(InvalidCursorException.class, () -> Keyset.resolve("", 10, "publicationYear", "ASC", SORTS));
+    }
+
+    @Test
+    void testPageUsesExtraRowToBuildNextCursor() {
+        List<Book> rows = List.of(
+                Book.builder().id(1L).title("A").status(BookStatus.AVAILABLE).build(),
+                Book.builder().id(2L).title("B").status(BookStatus.AVAILABLE).build(),
+                Book.builder().id(3L).title("C").status(BookStatus.AVAILABLE).build()
+        );
+
+        PageResponse<String> page = Keyset.page(rows, 2, "title", false, Book::getTitle);
+
+        assertEquals(List.of("A", "B"), page.content());
+        assertEquals(new KeysetCursor("title", false, "B", 2L), KeysetCursor.decode(page.nextCursor()));
+
+        PageResponse<String> last = Keyset.page(rows.subList(2, 3), 2, "title", false, Book::getTitle);
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void testMergeKeepsRowsPresentInBothListsOnceFromTheSecond() {
+        Book live = Book.builder().id(2L).title("B").status(BookStatus.BORROWED).build();
+        Book moved = Book.builder().id(2L).title("B").status(BookStatus.AVAILABLE).build();
+        List<Book> first = List.of(
+                Book.builder().id(1L).title("A").status(BookStatus.AVAILABLE).build(),
+                live
+        );
+        List<Book> second = List.of(
+                moved,
+                Book.builder().id(3L).title("C").status(BookStatus.AVAILABLE).build()
+        );
+
+        List<Book> merged = Keyset.merge(first, second, "title", false, 3);
+
+        assertEquals(List.of(1L, 2L, 3L), merged.stream().map(Book::getId).toList());
+        assertSame(moved, merged.get(1));
+    }
+}
@@ -0,0 +1,204 @@
+package com.ezertech.library.routing;
+
+import com.ezertech.library.dto.request.BookRequest;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.LoanRepository;
+import com.ezertech.library.service.ITBookService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Read/write routing against two in-memory H2 databases. Replication is simulated by copying the
+ * primary into the replica with {@code SCRIPT}/{@code RUNSCRIPT}, so rows written afterwards are only
+ * on the primary and show which database a read went to. The replica reports its lag from a table.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL;"
+                + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "library.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=PostgreSQL;"
+                + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "library.datasource.replica.lag-query=SELECT lag_millis FROM replica_lag",
+        "library.datasource.replica.lag-check-interval=PT1H",
+        "library.search.index.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ReadReplicaRoutingTest {
+
+    private static final AtomicInteger ISBNS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ITBookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void testReadOnlyTransactionsReadFromTheReplica() throws Exception {
+        createBook();
+        replicate(0L);
+        createBook();
+
+        // Recién escrito: este hilo sigue leyendo del primario
+        assertEquals(2, countBooks());
+
+        ReadYourWrites.clear();
+        assertEquals(1, countBooks());
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() throws Exception {
+        createBook();
+        replicate(60_000L);
+        createBook();
+        ReadYourWrites.clear();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(2, countBooks());
+    }
+
+    @Test
+    void testUnknownLagFallsBackToPrimary() throws Exception {
+        createBook();
+        replicate(null);
+        createBook();
+        ReadYourWrites.clear();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(2, countBooks());
+    }
+
+    @Test
+    void testInheritedCrudReadsOutsideATransactionGoToTheReplica() throws Exception {
+        replicate(0L);
+        long bookId = createBook();
+        ReadYourWrites.clear();
+
+        // findById de SimpleJpaRepository abre su propia transacción de solo lectura
+        assertTrue(bookRepository.findById(bookId).isEmpty());
+
+        // delete es transaccional de escritura: encuentra el libro en el primario
+        bookService.delete(bookId);
+        assertFalse(bookRepository.existsById(bookId));
+    }
+
+    @Test
+    void testClientReadsItsOwnWriteThroughTheCookie() throws Exception {
+        long bookId = createBook();
+        replicate(0L);
+        ReadYourWrites.clear();
+
+        Cookie cookie = mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"bookId":%d,"borrowerName":"Ana","borrowerEmail":"ana@test.com",
+                                 "loanDate":"%s"}
+                                """.formatted(bookId, LocalDate.now())))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWrites.COOKIE);
+        assertFalse(ReadYourWrites.isPinned());
+
+        mockMvc.perform(get("/api/loans/search").cookie(cookie))
+                .andExpect(jsonPath("$.totalElements").value(1));
+        mockMvc.perform(get("/api/loans/search"))
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void testTaggedSearchReadsFromPrimaryRightAfterACatalogChange() throws Exception {
+        replicate(0L);
+        createBook();
+        ReadYourWrites.clear();
+
+        // Sin cookie: la ETag ya incluye el libro nuevo, así que la búsqueda no puede ir a la réplica
+        mockMvc.perform(get("/api/books/search"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    private long createBook() {
+        return bookService.create(new BookRequest(null, "Refactoring", "Martin Fowler",
+                String.format("978%010d", ISBNS.incrementAndGet()), 1999, BookStatus.AVAILABLE)).id();
+    }
+
+    private long countBooks() {
+        return bookService.search(null, 0, 10, "id", "ASC").totalElements();
+    }
+
+    // Copia el primario en la réplica, le hace informar del retraso indicado (null: desconocido) y lo vuelve a medir
+    private void replicate(Long lagMillis) throws Exception {
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            execute(primary, "SCRIPT TO '" + script + "'");
+            execute(replica, "DROP ALL OBJECTS",
+                    "RUNSCRIPT FROM '" + script + "'",
+                    "CREATE TABLE replica_lag (lag_millis BIGINT)",
+                    "INSERT INTO replica_lag VALUES (" + lagMillis + ")");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+        lagMonitor.check();
+    }
+
+    private static void execute(DataSource dataSource, String... sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String each : sql) {
+                statement.execute(each);
+            }
+        }
+    }
+}
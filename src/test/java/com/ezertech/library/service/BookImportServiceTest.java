@@ -0,0 +1,173 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.response.BulkImportResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.exception.InvalidImportException;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.time.Year;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private BookImportServiceImpl importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        importService = new BookImportServiceImpl(bookRepository, entityManager, transactionTemplate,
+                validator, JsonMapper.builder().build(), eventPublisher);
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCsvImportSkipsDuplicatesAndInvalidRows() throws Exception {
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of("9780201485677"));
+
+        String csv = """
+                title,author,isbn,publication_year
+                "Clean Code, 2nd ""Edition\"\"\",Robert C. Martin,9780132350884,2008
+                Refactoring,Martin Fowler,9780201485677,1999
+                Effective Java,Joshua Bloch,9780134685991,not-a-year
+                Clean Code again,Robert C. Martin,9780132350884,2008
+                """;
+
+        BulkImportResponse result = importService.importCsv(new StringReader(csv));
+
+        assertEquals(4, result.received());
+        assertEquals(1, result.imported());
+        assertEquals(3, result.rejected());
+        assertEquals(List.of(3L, 4L, 5L), result.errors().stream().map(BulkImportResponse.RowError::row).sorted().toList());
+
+        ArgumentCaptor<List<Book>> saved = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository).saveAll(saved.capture());
+        assertEquals("Clean Code, 2nd \"Edition\"", saved.getValue().get(0).getTitle());
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void testCsvImportRequiresColumns() {
+        assertThrows(InvalidImportException.class,
+                () -> importService.importCsv(new StringReader("title,author\nClean Code,Robert C. Martin\n")));
+    }
+
+    @Test
+    void testNdjsonReportsMalformedLinesAndKeepsGoing() throws Exception {
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+
+        String ndjson = """
+                {"title":"Clean Code","author":"Robert C. Martin","isbn":"9780132350884","publicationYear":2008}
+                {"title":"Refactoring",
+
+                {"title":"Effective Java","author":"Joshua Bloch","isbn":"978013468599","publicationYear":2018}
+                """;
+
+        BulkImportResponse result = importService.importNdjson(new StringReader(ndjson));
+
+        assertEquals(3, result.received());
+        assertEquals(1, result.imported());
+        assertEquals(List.of(2L, 4L), result.errors().stream().map(BulkImportResponse.RowError::row).toList());
+    }
+
+    @Test
+    void testBatchRejectedByConstraintIsRetriedRowByRow() throws Exception {
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(bookRepository.saveAll(any()))
+                .thenThrow(uniqueViolation())
+                .thenReturn(List.of())
+                .thenThrow(uniqueViolation());
+
+        String csv = """
+                title,author,isbn,publicationYear
+                Clean Code,Robert C. Martin,9780132350884,2008
+                Refactoring,Martin Fowler,9780201485677,1999
+                """;
+
+        BulkImportResponse result = importService.importCsv(new StringReader(csv));
+
+        assertEquals(1, result.imported());
+        assertEquals("9780201485677", result.errors().get(0).isbn());
+        assertEquals("ISBN already exists: 9780201485677", result.errors().get(0).message());
+    }
+
+    @Test
+    void testOtherConstraintViolationsAreNotReportedAsDuplicates() throws Exception {
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        DataIntegrityViolationException checkViolation = new DataIntegrityViolationException("could not execute batch",
+                new SQLException("violates check constraint \"chk_publication_year\"", "23514"));
+        when(bookRepository.saveAll(any())).thenThrow(checkViolation);
+
+        String csv = """
+                title,author,isbn,publicationYear
+                Clean Code,Robert C. Martin,9780132350884,2008
+                """;
+
+        BulkImportResponse result = importService.importCsv(new StringReader(csv));
+
+        assertEquals(0, result.imported());
+        assertFalse(result.errors().get(0).message().startsWith("ISBN already exists"));
+        assertTrue(result.errors().get(0).message().contains("chk_publication_year"));
+    }
+
+    @Test
+    void testFuturePublicationYearIsRejectedBeforeInsert() throws Exception {
+        String csv = """
+                title,author,isbn,publicationYear
+                Clean Code,Robert C. Martin,9780132350884,%d
+                """.formatted(Year.now().getValue() + 1);
+
+        BulkImportResponse result = importService.importCsv(new StringReader(csv));
+
+        assertEquals(0, result.imported());
+        assertEquals("Publication year cannot be in the future", result.errors().get(0).message());
+        verify(bookRepository, never()).saveAll(any());
+    }
+
+    private static DataIntegrityViolationException uniqueViolation() {
+        return new DataIntegrityViolationException("could not execute batch",
+                new SQLException("duplicate key value violates unique constraint", "23505"));
+    }
+}
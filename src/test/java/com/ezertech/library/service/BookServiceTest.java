@@ -1,23 +1,44 @@
 package com.ezertech.library.service;
 
+import com.ezertech.library.cache.BookCache;
 import com.ezertech.library.dto.request.BookRequest;
+import com.ezertech.library.dto.request.SearchRequest;
 import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.event.BookChangedEvent;
 import com.ezertech.library.exception.BookDeletionException;
 import com.ezertech.library.exception.BookNotFoundException;
 import com.ezertech.library.exception.DuplicateIsbnException;
+import com.ezertech.library.index.AvailableBookIndex;
+import com.ezertech.library.index.BookSearchIndex;
 import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.entity.Loan;
 import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.ArchivedLoanRepository;
 import com.ezertech.library.repository.BookRepository;
 import com.ezertech.library.repository.LoanRepository;
+import com.ezertech.library.repository.PlannerStatistics;
+import com.ezertech.library.stats.LibraryStatsEngine;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
+import java.io.StringWriter;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,44 +52,70 @@ class BookServiceTest {
     @Mock
     private LoanRepository loanRepository;
 
+    @Mock
+    private ArchivedLoanRepository archivedLoanRepository;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private AvailableBookIndex availableBookIndex;
+
+    @Spy
+    private BookCache bookCache = new BookCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Mock
+    private PlannerStatistics plannerStatistics;
+
+    @Mock
+    private LibraryStatsEngine libraryStatsEngine;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
     @Test
     void testCreateBook() {
         BookRequest request = new BookRequest(null,"Clean Code","Robert C. Martin","9780132350884",2008,BookStatus.AVAILABLE);
-        Book book = new Book(1L, request.title(), request.author(), request.isbn(), request.publicationYear(), request.status(), LocalDateTime.now());
+        Book book = new Book(1L, request.title(), request.author(), request.isbn(), request.publicationYear(), request.status(), LocalDateTime.now(), 0L);
 
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenReturn(book);
 
         BookResponse response = bookService.create(request);
 
         assertNotNull(response);
         assertEquals("Clean Code", response.title());
-        verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookRepository, times(1)).saveAndFlush(any(Book.class));
+        verify(eventPublisher, times(1)).publishEvent(any(BookChangedEvent.class));
     }
 
     @Test
     void testFindByIdReturnsBook() {
-        Book book = new Book(1L,"Refactoring","Martin Fowler","9780201485677",1999,BookStatus.AVAILABLE,LocalDateTime.now());
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        BookResponse book = new BookResponse(1L,"Refactoring","Martin Fowler","9780201485677",1999,BookStatus.AVAILABLE,LocalDateTime.now(), 0L);
+        when(bookRepository.findResponseById(1L)).thenReturn(Optional.of(book));
 
         BookResponse response = bookService.findById(1L);
 
         assertEquals("Refactoring", response.title());
-        verify(bookRepository, times(1)).findById(1L);
+        verify(bookRepository, times(1)).findResponseById(1L);
+        verify(bookRepository, never()).findById(any());
     }
 
     @Test
     void testFindByIdThrowsNotFound() {
-        when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+        when(bookRepository.findResponseById(99L)).thenReturn(Optional.empty());
 
         assertThrows(BookNotFoundException.class, () -> bookService.findById(99L));
     }
 
     @Test
     void testUpdateThrowsDuplicateIsbn() {
-        Book existing = new Book(2L,"Other","Author","9780321125217",2003,BookStatus.AVAILABLE,LocalDateTime.now());
+        Book existing = new Book(2L,"Other","Author","9780321125217",2003,BookStatus.AVAILABLE,LocalDateTime.now(), 0L);
         when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
         when(bookRepository.findByIsbn("9780321125217")).thenReturn(Optional.of(existing));
 
@@ -77,10 +124,25 @@ class BookServiceTest {
         assertThrows(DuplicateIsbnException.class, () -> bookService.update(1L, request));
     }
 
+    @Test
+    void testUpdateTitleRefreshesLoanSearchText() {
+        Book book = new Book(1L,"Refactoring","Martin Fowler","9780201485677",1999,BookStatus.BORROWED,LocalDateTime.now(), 0L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findByIsbn("9780201485677")).thenReturn(Optional.of(book));
+        when(bookRepository.saveAndFlush(book)).thenReturn(book);
+
+        bookService.update(1L, new BookRequest(1L,"Refactoring (2nd Edition)","Martin Fowler","9780201485677",2018,BookStatus.BORROWED));
+        verify(loanRepository).updateSearchTextForBook(1L, "refactoring (2nd edition)", Loan.SEARCH_TEXT_SEPARATOR);
+
+        // Sin cambio de título los préstamos no se tocan
+        bookService.update(1L, new BookRequest(1L,"Refactoring (2nd Edition)","Martin Fowler","9780201485677",2019,BookStatus.BORROWED));
+        verifyNoMoreInteractions(loanRepository);
+    }
+
     @Test
     void testDeleteBookRemovesEntityWhenNoLoans() {
         Long id = 1L;
-        Book book = new Book(id,"Refactoring","Martin Fowler","9780201485677",1999,BookStatus.AVAILABLE,LocalDateTime.now());
+        Book book = new Book(id,"Refactoring","Martin Fowler","9780201485677",1999,BookStatus.AVAILABLE,LocalDateTime.now(), 0L);
 
         when(bookRepository.findById(id)).thenReturn(Optional.of(book));
         when(loanRepository.existsByBookId(id)).thenReturn(false);
@@ -93,7 +155,7 @@ class BookServiceTest {
     @Test
     void testDeleteBookFailsWhenLoansExist() {
         Long id = 1L;
-        Book book = new Book(id,"Refactoring","Martin Fowler","9780201485677",1999,BookStatus.AVAILABLE,LocalDateTime.now());
+        Book book = new Book(id,"Refactoring","Martin Fowler","9780201485677",1999,BookStatus.AVAILABLE,LocalDateTime.now(), 0L);
 
         when(bookRepository.findById(id)).thenReturn(Optional.of(book));
         when(loanRepository.existsByBookId(id)).thenReturn(true);
@@ -102,10 +164,89 @@ class BookServiceTest {
         verify(bookRepository, never()).delete(book);
     }
 
+    @Test
+    void testDeleteBookFailsWhenArchivedLoansExist() {
+        Long id = 1L;
+        Book book = new Book(id,"Refactoring","Martin Fowler","9780201485677",1999,BookStatus.AVAILABLE,LocalDateTime.now(), 0L);
+
+        when(bookRepository.findById(id)).thenReturn(Optional.of(book));
+        when(archivedLoanRepository.existsByBookId(id)).thenReturn(true);
+
+        assertThrows(BookDeletionException.class, () -> bookService.delete(id));
+        verify(bookRepository, never()).delete(book);
+    }
+
     @Test
     void testDeleteBookThrowsNotFound() {
         when(bookRepository.findById(42L)).thenReturn(Optional.empty());
 
         assertThrows(BookNotFoundException.class, () -> bookService.delete(42L));
     }
+
+    @Test
+    void testSearchUsesIndexAndHydratesInIndexOrder() {
+        BookResponse first = new BookResponse(3L,"Effective Java","Joshua Bloch","9780134685991",2018,BookStatus.AVAILABLE,LocalDateTime.now(), 0L);
+        BookResponse second = new BookResponse(1L,"Java Concurrency in Practice","Brian Goetz","9780321349606",2006,BookStatus.AVAILABLE,LocalDateTime.now(), 0L);
+
+        when(bookSearchIndex.search("java", false, 0, 2, "title", "ASC"))
+                .thenReturn(Optional.of(new BookSearchIndex.Hits(List.of(3L, 1L), 5)));
+        when(bookRepository.findResponsesByIdIn(List.of(3L, 1L))).thenReturn(List.of(second, first));
+
+        PageResponse<BookResponse> response = bookService.search(new SearchRequest("java"), 0, 2, "title", "ASC");
+
+        assertEquals(List.of(3L, 1L), response.content().stream().map(BookResponse::id).toList());
+        assertEquals(5, response.totalElements());
+        assertEquals(3, response.totalPages());
+        verify(bookRepository, never()).searchByKeyword(any(), any(Pageable.class));
+    }
+
+    @Test
+    void testSearchFallsBackToDatabaseWhenIndexCannotAnswer() {
+        BookResponse book = new BookResponse(1L,"Refactoring","Martin Fowler","9780201485677",1999,BookStatus.AVAILABLE,LocalDateTime.now(), 0L);
+
+        when(bookSearchIndex.search("fowler", false, 0, 10, "id", "ASC")).thenReturn(Optional.empty());
+        when(bookRepository.searchByKeyword(eq("fowler"), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(book)));
+
+        PageResponse<BookResponse> response = bookService.search(new SearchRequest("fowler"), 0, 10, "id", "ASC");
+
+        assertEquals(1, response.totalElements());
+        assertEquals("Refactoring", response.content().get(0).title());
+    }
+
+    @Test
+    void testSuggestAvailableFallsBackToDatabaseUntilIndexLoads() {
+        BookResponse book = new BookResponse(1L,"Clean Code","Robert C. Martin","9780132350884",2008,BookStatus.AVAILABLE,LocalDateTime.now(), 0L);
+
+        when(availableBookIndex.suggest(" Clean ", 50)).thenReturn(Optional.empty());
+        when(bookRepository.suggestByPrefix(BookStatus.AVAILABLE, "clean", Limit.of(50))).thenReturn(List.of(book));
+
+        assertEquals(List.of(book), bookService.suggestAvailable(" Clean ", 500));
+    }
+
+    @Test
+    void testGetLibraryStatsReadsCountersWithoutQueries() {
+        when(libraryStatsEngine.snapshot()).thenReturn(Map.of("totalBooks", 3L));
+
+        assertEquals(3L, bookService.getLibraryStats().get("totalBooks"));
+        verifyNoInteractions(bookRepository, loanRepository);
+    }
+
+    @Test
+    void testExportCsvStreamsAndEscapesRows() throws Exception {
+        Book quoted = new Book(1L, "Clean Code, 2nd \"Edition\"", "Robert C. Martin", "9780132350884",
+                2008, BookStatus.AVAILABLE, LocalDateTime.now(), 0L);
+        Book plain = new Book(2L, "Refactoring", "Martin Fowler", "9780201485677",
+                1999, BookStatus.BORROWED, LocalDateTime.now(), 0L);
+        when(bookRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(quoted, plain));
+
+        StringWriter out = new StringWriter();
+        bookService.exportCsv(out);
+
+        assertEquals("Título,Autor,ISBN,Estado\r\n"
+                + "\"Clean Code, 2nd \"\"Edition\"\"\",Robert C. Martin,9780132350884,AVAILABLE\r\n"
+                + "Refactoring,Martin Fowler,9780201485677,BORROWED\r\n", out.toString());
+        verify(entityManager).detach(quoted);
+        verify(entityManager).detach(plain);
+        verify(bookRepository, never()).findAll();
+    }
 }
@@ -0,0 +1,126 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.dto.response.BorrowerSummaryResponse;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.exception.BorrowerNotFoundException;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.entity.Loan;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.BorrowerSummaryRepository;
+import com.ezertech.library.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Borrower totals maintained by the loan writes, and the keyset history, against H2.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:borrowers;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("h2")
+class BorrowerServiceTest {
+
+    private static final String EMAIL = "laura@test.com";
+
+    @Autowired
+    private ITBorrowerService borrowerService;
+
+    @Autowired
+    private ITLoanService loanService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private BorrowerSummaryRepository borrowerSummaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAllInBatch();
+        borrowerSummaryRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testSummaryFollowsCheckoutsAndReturns() {
+        List<LoanResponse> loans = lend(3);
+        loanService.returnBook(loans.get(0).id());
+
+        BorrowerSummaryResponse summary = borrowerService.getSummary(EMAIL);
+
+        assertEquals("Laura", summary.borrowerName());
+        assertEquals(2, summary.activeLoans());
+        assertEquals(0, summary.overdueLoans());
+        assertEquals(3, summary.lifetimeLoans());
+    }
+
+    @Test
+    void testOverdueCountIsRefreshedAndClearedOnReturn() {
+        LoanResponse loan = lend(1).getFirst();
+        Loan entity = loanRepository.findById(loan.id()).orElseThrow();
+        entity.setDueDate(LocalDate.now().minusDays(1));
+        loanRepository.save(entity);
+
+        borrowerService.refreshOverdueCounts();
+        assertEquals(1, borrowerService.getSummary(EMAIL).overdueLoans());
+
+        loanService.returnBook(loan.id());
+        BorrowerSummaryResponse summary = borrowerService.getSummary(EMAIL);
+        assertEquals(0, summary.overdueLoans());
+        assertEquals(0, summary.activeLoans());
+    }
+
+    @Test
+    void testUnknownBorrowerHasNoSummary() {
+        assertThrows(BorrowerNotFoundException.class, () -> borrowerService.getSummary("nobody@test.com"));
+    }
+
+    @Test
+    void testHistoryIsPagedWithCursor() {
+        List<Long> ids = lend(5).stream().map(LoanResponse::id).toList();
+
+        List<Long> seen = new ArrayList<>();
+        String after = null;
+        do {
+            PageResponse<LoanResponse> page = borrowerService.findLoans(EMAIL, after, 2, "id", "DESC", false);
+            page.content().forEach(loan -> seen.add(loan.id()));
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertEquals(ids.reversed(), seen);
+        assertTrue(borrowerService.findLoans("nobody@test.com", null, 2, "id", "DESC", false).content().isEmpty());
+    }
+
+    private List<LoanResponse> lend(int count) {
+        List<LoanResponse> loans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Book book = bookRepository.save(Book.builder()
+                    .title("Book " + i)
+                    .author("Author")
+                    .isbn(String.format("978%010d", i))
+                    .publicationYear(2000)
+                    .status(BookStatus.AVAILABLE)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            loans.add(loanService.create(new LoanRequest(book.getId(), "Laura", EMAIL, LocalDate.now())));
+        }
+        return loans;
+    }
+}
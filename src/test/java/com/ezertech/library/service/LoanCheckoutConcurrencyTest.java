@@ -0,0 +1,147 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.exception.BookNotAvailableException;
+import com.ezertech.library.exception.LoanAlreadyReturnedException;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several desks try to check out the same copies at once through {@link LoanServiceImpl#create}.
+ * The throughput comparison with a SELECT ... FOR UPDATE variant lives in {@code CheckoutBenchmark}.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:checkout;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@ActiveProfiles("h2")
+class LoanCheckoutConcurrencyTest {
+
+    private static final int DESKS = 8;
+    private static final int BOOKS = 200;
+    private static final AtomicLong ISBN_SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private ITLoanService loanService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @FunctionalInterface
+    private interface Checkout {
+        void checkout(Long bookId, String email);
+    }
+
+    private record Result(int granted, int refused) {}
+
+    @Test
+    void testConcurrentCheckoutsNeverLendACopyTwice() throws Exception {
+        List<Long> bookIds = createBooks(BOOKS);
+
+        Result result = race(bookIds, this::conditionalCheckout);
+
+        assertEquals(BOOKS, result.granted());
+        assertEquals(BOOKS * (DESKS - 1), result.refused());
+        assertOneLoanPerBook(bookIds);
+    }
+
+    @Test
+    void testReturningAnOldLoanAgainDoesNotReleaseTheCopyLentSince() {
+        Long bookId = createBooks(1).get(0);
+        Long first = loanService.create(new LoanRequest(bookId, "Desk", "first@test.com", LocalDate.now())).id();
+        loanService.returnBook(first);
+        loanService.create(new LoanRequest(bookId, "Desk", "second@test.com", LocalDate.now()));
+
+        assertThrows(LoanAlreadyReturnedException.class, () -> loanService.returnBook(first));
+
+        assertEquals(BookStatus.BORROWED, bookRepository.findById(bookId).orElseThrow().getStatus());
+        assertThrows(BookNotAvailableException.class, () -> conditionalCheckout(bookId, "third@test.com"));
+    }
+
+    private void conditionalCheckout(Long bookId, String email) {
+        loanService.create(new LoanRequest(bookId, "Desk", email, LocalDate.now()));
+    }
+
+    private Result race(List<Long> bookIds, Checkout checkout) throws Exception {
+        ExecutorService desks = Executors.newFixedThreadPool(DESKS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int desk = 0; desk < DESKS; desk++) {
+            String email = "desk" + desk + "@test.com";
+            futures.add(desks.submit(() -> {
+                start.await();
+                // Todos los puestos recorren los libros en el mismo orden: máxima contención
+                for (Long bookId : bookIds) {
+                    try {
+                        checkout.checkout(bookId, email);
+                        granted.incrementAndGet();
+                    } catch (BookNotAvailableException ex) {
+                        refused.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        desks.shutdown();
+
+        return new Result(granted.get(), refused.get());
+    }
+
+    private List<Long> createBooks(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(Book.builder()
+                    .title("Copy " + i)
+                    .author("Test Author")
+                    .isbn(String.format("978%010d", ISBN_SEQUENCE.incrementAndGet()))
+                    .publicationYear(2020)
+                    .status(BookStatus.AVAILABLE)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return bookRepository.saveAll(books).stream().map(Book::getId).toList();
+    }
+
+    private void assertOneLoanPerBook(List<Long> bookIds) {
+        Map<Long, Long> loansPerBook = transactionTemplate.execute(status -> loanRepository.findAll().stream()
+                .filter(loan -> bookIds.contains(loan.getBook().getId()))
+                .collect(Collectors.groupingBy(loan -> loan.getBook().getId(), Collectors.counting())));
+
+        assertEquals(bookIds.size(), loansPerBook.size());
+        assertTrue(loansPerBook.values().stream().allMatch(count -> count == 1), "A copy was lent twice");
+        assertTrue(bookRepository.findAllById(bookIds).stream()
+                .map(Book::getStatus)
+                .allMatch(status -> status == BookStatus.BORROWED));
+    }
+}
@@ -0,0 +1,113 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.request.BookRequest;
+import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A page of loans must cost the same number of statements whatever its size: one for the rows
+ * (loan and book title in a single join) plus the count query, never one extra SELECT per loan.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loan-search;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("h2")
+class LoanSearchStatementCountTest {
+
+    private static final int LOANS = 12;
+
+    @Autowired
+    private ITLoanService loanService;
+
+    @Autowired
+    private ITBookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        if (bookRepository.count() == 0) {
+            for (int i = 0; i < LOANS; i++) {
+                Book book = bookRepository.save(Book.builder()
+                        .title("Refactoring vol. " + i)
+                        .author("Martin Fowler")
+                        .isbn(String.format("979%010d", i))
+                        .publicationYear(1999)
+                        .status(BookStatus.AVAILABLE)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+                loanService.create(new LoanRequest(book.getId(), "Reader " + i, "reader" + i + "@test.com",
+                        LocalDate.now()));
+            }
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testPlainSearchPageCostsTwoStatements() {
+        PageResponse<LoanResponse> page = loanService.search(null, 0, 5, "loanDate", "ASC");
+
+        assertEquals(5, page.content().size());
+        assertEquals(LOANS, page.totalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testKeywordSearchPageCostsTwoStatements() {
+        PageResponse<LoanResponse> page = loanService.search(" REFACTORING ", 0, 5, "loanDate", "ASC");
+
+        assertEquals(5, page.content().size());
+        assertEquals(LOANS, page.totalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testSliceAndKeysetPagesCostOneStatement() {
+        loanService.searchSlice("reader", 0, 5, "loanDate", "ASC", false);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        PageResponse<LoanResponse> page = loanService.searchAfter("reader", null, 5, "loanDate", "ASC");
+        assertEquals(5, page.content().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testRenamedBookIsFoundByItsNewTitle() {
+        Book book = bookRepository.findByIsbn("9790000000000").orElseThrow();
+        bookService.update(book.getId(), new BookRequest(null, "Refactoring, second edition", "Martin Fowler",
+                book.getIsbn(), 2018, BookStatus.BORROWED));
+
+        PageResponse<LoanResponse> page = loanService.search("second edition", 0, 5, "loanDate", "ASC");
+
+        assertEquals(1, page.totalElements());
+        assertEquals("Reader 0", page.content().getFirst().borrowerName());
+        assertEquals(LOANS, loanService.search("refactoring", 0, 5, "loanDate", "ASC").totalElements());
+    }
+}
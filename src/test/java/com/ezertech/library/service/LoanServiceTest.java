@@ -1,28 +1,43 @@
 package com.ezertech.library.service;
 
+import com.ezertech.library.cache.BookCache;
 import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.dto.response.BookResponse;
 import com.ezertech.library.dto.response.LoanResponse;
 import com.ezertech.library.dto.response.PageResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.event.LoanChangedEvent;
 import com.ezertech.library.exception.BookNotAvailableException;
 import com.ezertech.library.exception.BookNotFoundException;
+import com.ezertech.library.exception.LoanAlreadyReturnedException;
 import com.ezertech.library.exception.LoanNotFoundException;
+import com.ezertech.library.index.OverdueLoanIndex;
 import com.ezertech.library.model.entity.Book;
 import com.ezertech.library.model.entity.Loan;
 import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.reporting.LoanActivityRollups;
 import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.BorrowerSummaryRepository;
 import com.ezertech.library.repository.LoanRepository;
+import com.ezertech.library.repository.PlannerStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,17 +51,36 @@ class LoanServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BorrowerSummaryRepository borrowerSummaryRepository;
+
+    @Spy
+    private BookCache bookCache = new BookCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Mock
+    private PlannerStatistics plannerStatistics;
+
+    @Mock
+    private OverdueLoanIndex overdueLoanIndex;
+
+    @Mock
+    private LoanActivityRollups loanActivityRollups;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private LoanServiceImpl loanService;
 
     @Test
     void testCreateLoanSuccess() {
         Book book = new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884",
-                2008, BookStatus.AVAILABLE, null);
+                2008, BookStatus.AVAILABLE, null, 0L);
         LoanRequest request = new LoanRequest(book.getId(), "Andrés", "andres@test.com",LocalDate.now());
 
-        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookRepository.updateStatusIf(book.getId(), BookStatus.AVAILABLE, BookStatus.BORROWED)).thenReturn(1);
+        when(bookRepository.findResponseById(book.getId())).thenReturn(Optional.of(BookResponse.from(book)));
+        when(bookRepository.getReferenceById(book.getId())).thenReturn(book);
         when(loanRepository.save(any(Loan.class))).thenAnswer(inv -> {
             Loan l = inv.getArgument(0);
             l.setId(10L);
@@ -58,14 +92,37 @@ class LoanServiceTest {
         assertNotNull(response);
         assertEquals("Clean Code", response.bookTitle());
         assertEquals(BookStatus.BORROWED, book.getStatus());
-        verify(bookRepository, times(1)).save(book);
-        verify(loanRepository, times(1)).save(any(Loan.class));
+        verify(bookRepository, times(1)).updateStatusIf(book.getId(), BookStatus.AVAILABLE, BookStatus.BORROWED);
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).findById(any());
+        verify(loanRepository, times(1)).save(argThat((Loan l) ->
+                "andrés\nandres@test.com\nclean code".equals(l.getSearchText())));
+        verify(borrowerSummaryRepository).insertIfAbsent("andres@test.com", "Andrés");
+        verify(borrowerSummaryRepository).recordLoanOpened("andres@test.com", "Andrés");
+        verify(loanActivityRollups).recordOpened(LocalDate.now(), 1L, "andres@test.com");
+    }
+
+    @Test
+    void testCreateLoanReadsBookFromCache() {
+        Book book = new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884",
+                2008, BookStatus.AVAILABLE, null, 0L);
+        bookCache.byId(book.getId(), id -> Optional.of(BookResponse.from(book)));
+
+        when(bookRepository.updateStatusIf(book.getId(), BookStatus.AVAILABLE, BookStatus.BORROWED)).thenReturn(1);
+        when(bookRepository.getReferenceById(book.getId())).thenReturn(book);
+        when(loanRepository.save(any(Loan.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        LoanResponse response = loanService.create(new LoanRequest(book.getId(), "Andrés", "andres@test.com",
+                LocalDate.now()));
+
+        assertEquals("Clean Code", response.bookTitle());
+        verify(bookRepository, never()).findResponseById(any());
     }
 
     @Test
     void testCreateLoanThrowsBookNotFound() {
         LoanRequest request = new LoanRequest(99L, "Andrés", "andres@test.com",LocalDate.now());
-        when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+        when(bookRepository.existsById(99L)).thenReturn(false);
 
         assertThrows(BookNotFoundException.class, () -> loanService.create(request));
     }
@@ -73,18 +130,19 @@ class LoanServiceTest {
     @Test
     void testCreateLoanThrowsBookNotAvailable() {
         Book book = new Book(1L, "Refactoring", "Martin Fowler", "9780201485677",
-                1999, BookStatus.BORROWED, null);
+                1999, BookStatus.BORROWED, null, 0L);
         LoanRequest request = new LoanRequest(book.getId(), "Andrés", "andres@test.com",LocalDate.now());
 
-        when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
+        when(bookRepository.existsById(book.getId())).thenReturn(true);
 
         assertThrows(BookNotAvailableException.class, () -> loanService.create(request));
+        verify(loanRepository, never()).save(any(Loan.class));
     }
 
     @Test
     void testReturnBookSuccess() {
         Book book = new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884",
-                2008, BookStatus.BORROWED, null);
+                2008, BookStatus.BORROWED, null, 0L);
         Loan loan = Loan.builder()
                 .id(10L)
                 .book(book)
@@ -95,42 +153,158 @@ class LoanServiceTest {
                 .build();
 
         when(loanRepository.findById(10L)).thenReturn(Optional.of(loan));
-        when(bookRepository.save(book)).thenReturn(book);
+        when(loanRepository.closeIfOpen(10L, LocalDate.now())).thenReturn(1);
         when(loanRepository.save(loan)).thenReturn(loan);
+        when(bookRepository.updateStatusIf(1L, BookStatus.BORROWED, BookStatus.AVAILABLE)).thenReturn(1);
+        BookResponse released = BookResponse.from(book).withStatus(BookStatus.AVAILABLE);
+        when(bookRepository.findResponseById(1L)).thenReturn(Optional.of(released));
 
         LoanResponse response = loanService.returnBook(10L);
 
         assertNotNull(response.returnDate());
-        assertEquals(BookStatus.AVAILABLE, book.getStatus());
-        verify(bookRepository, times(1)).save(book);
+        assertEquals("andrés\nandres@test.com\nclean code", loan.getSearchText());
         verify(loanRepository, times(1)).save(loan);
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof BookChangedEvent bce
+                && bce.after() == released));
+        verify(borrowerSummaryRepository).recordLoanClosed("andres@test.com", 0);
+        verify(loanActivityRollups).recordReturned(LocalDate.now(), 1L, "andres@test.com");
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof LoanChangedEvent lce && lce.isClosed()));
     }
 
     @Test
-    void testReturnBookThrowsLoanNotFound() {
-        when(loanRepository.findById(42L)).thenReturn(Optional.empty());
+    void testReturnOverdueBookDecrementsOverdueCount() {
+        Book book = new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884",
+                2008, BookStatus.BORROWED, null, 0L);
+        Loan loan = Loan.builder()
+                .id(10L)
+                .book(book)
+                .borrowerName("Andrés")
+                .borrowerEmail("andres@test.com")
+                .loanDate(LocalDate.now().minusDays(20))
+                .dueDate(LocalDate.now().minusDays(6))
+                .build();
 
-        assertThrows(LoanNotFoundException.class, () -> loanService.returnBook(42L));
+        when(loanRepository.findById(10L)).thenReturn(Optional.of(loan));
+        when(loanRepository.closeIfOpen(10L, LocalDate.now())).thenReturn(1);
+        when(loanRepository.save(loan)).thenReturn(loan);
+
+        loanService.returnBook(10L);
+
+        verify(borrowerSummaryRepository).recordLoanClosed("andres@test.com", 1);
     }
 
     @Test
-    void testSearchReturnsPage() {
+    void testReturnAlreadyReturnedLoanChangesNothing() {
+        Book book = new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884",
+                2008, BookStatus.BORROWED, null, 0L);
         Loan loan = Loan.builder()
                 .id(10L)
-                .book(new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884",
-                        2008, BookStatus.AVAILABLE, null))
+                .book(book)
                 .borrowerName("Andrés")
                 .borrowerEmail("andres@test.com")
-                .loanDate(LocalDate.now())
-                .dueDate(LocalDate.now().plusDays(14))
+                .loanDate(LocalDate.now().minusDays(20))
+                .dueDate(LocalDate.now().minusDays(6))
+                .returnDate(LocalDate.now().minusDays(10))
                 .build();
+        when(loanRepository.findById(10L)).thenReturn(Optional.of(loan));
 
-        Page<Loan> page = new PageImpl<>(List.of(loan));
-        when(loanRepository.findAll(any(Pageable.class))).thenReturn(page);
+        assertThrows(LoanAlreadyReturnedException.class, () -> loanService.returnBook(10L));
 
-        PageResponse<LoanResponse> response = loanService.search(0, 10, "loanDate", "ASC");
+        verify(bookRepository, never()).updateStatusIf(any(), any(), any());
+        verifyNoInteractions(borrowerSummaryRepository, loanActivityRollups, eventPublisher);
+    }
+
+    @Test
+    void testConcurrentSecondReturnIsRejected() {
+        Book book = new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884",
+                2008, BookStatus.BORROWED, null, 0L);
+        Loan loan = Loan.builder()
+                .id(10L)
+                .book(book)
+                .borrowerName("Andrés")
+                .borrowerEmail("andres@test.com")
+                .loanDate(LocalDate.now().minusDays(5))
+                .dueDate(LocalDate.now().plusDays(9))
+                .build();
+        when(loanRepository.findById(10L)).thenReturn(Optional.of(loan));
+        // Otra devolución cerró el préstamo entre la lectura y el UPDATE
+        when(loanRepository.closeIfOpen(10L, LocalDate.now())).thenReturn(0);
+
+        assertThrows(LoanAlreadyReturnedException.class, () -> loanService.returnBook(10L));
+
+        verify(bookRepository, never()).updateStatusIf(any(), any(), any());
+    }
+
+    @Test
+    void testReturnBookThrowsLoanNotFound() {
+        when(loanRepository.findById(42L)).thenReturn(Optional.empty());
+
+        assertThrows(LoanNotFoundException.class, () -> loanService.returnBook(42L));
+    }
+
+    @Test
+    void testSearchReturnsPage() {
+        LoanResponse loan = new LoanResponse(10L, 1L, "Clean Code", "Andrés", "andres@test.com",
+                LocalDate.now(), LocalDate.now().plusDays(14), null);
+
+        Page<LoanResponse> page = new PageImpl<>(List.of(loan));
+        when(loanRepository.findAllResponses(any(Pageable.class))).thenReturn(page);
+
+        PageResponse<LoanResponse> response = loanService.search(null, 0, 10, "loanDate", "ASC");
 
         assertEquals(1, response.totalElements());
         assertEquals("Clean Code", response.content().get(0).bookTitle());
+        verify(loanRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void testSearchMatchesKeywordAgainstLowerCaseSearchText() {
+        LoanResponse loan = new LoanResponse(10L, 1L, "Clean Code", "Andrés", "andres@test.com",
+                LocalDate.now(), LocalDate.now().plusDays(14), null);
+
+        when(loanRepository.searchResponsesByKeyword(eq("clean code"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(loan)));
+
+        PageResponse<LoanResponse> response = loanService.search("  Clean CODE ", 0, 10, "loanDate", "ASC");
+
+        assertEquals(1, response.totalElements());
+        verify(loanRepository, never()).findAllResponses(any(Pageable.class));
+    }
+
+    @Test
+    void testSearchSliceSkipsCountAndAddsEstimate() {
+        LoanResponse loan = new LoanResponse(10L, 1L, "Clean Code", "Andrés", "andres@test.com",
+                LocalDate.now(), LocalDate.now().plusDays(14), null);
+
+        when(loanRepository.sliceAll(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(loan), Pageable.ofSize(1), true));
+        when(plannerStatistics.estimateLoans(null)).thenReturn(OptionalLong.of(1200));
+
+        PageResponse<LoanResponse> response = loanService.searchSlice(null, 0, 1, "loanDate", "ASC", true);
+
+        assertTrue(response.hasNext());
+        assertEquals(-1, response.totalElements());
+        assertEquals(1200L, response.estimatedTotal());
+        verify(loanRepository, never()).findAllResponses(any(Pageable.class));
+    }
+
+    @Test
+    void testFindOverdueHydratesInIndexOrder() {
+        Book book = new Book(1L, "Clean Code", "Robert C. Martin", "9780132350884",
+                2008, BookStatus.BORROWED, null, 0L);
+        Loan older = Loan.builder().id(7L).book(book).borrowerName("Andrés").borrowerEmail("andres@test.com")
+                .loanDate(LocalDate.now().minusDays(30)).dueDate(LocalDate.now().minusDays(16)).build();
+        Loan newer = Loan.builder().id(3L).book(book).borrowerName("Laura").borrowerEmail("laura@test.com")
+                .loanDate(LocalDate.now().minusDays(20)).dueDate(LocalDate.now().minusDays(6)).build();
+
+        when(overdueLoanIndex.overdue(0, 10))
+                .thenReturn(Optional.of(new OverdueLoanIndex.Hits(List.of(7L, 3L), 2)));
+        when(loanRepository.findAllWithBookByIdIn(List.of(7L, 3L))).thenReturn(List.of(newer, older));
+
+        PageResponse<LoanResponse> response = loanService.findOverdue(0, 10);
+
+        assertEquals(List.of(7L, 3L), response.content().stream().map(LoanResponse::id).toList());
+        assertEquals(2, response.totalElements());
+        verify(loanRepository, never()).findOverdue(any(), any());
     }
 }
@@ -0,0 +1,143 @@
+package com.ezertech.library.service;
+
+import com.ezertech.library.dto.request.LoanRequest;
+import com.ezertech.library.dto.response.LoanActivityResponse;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.dto.response.TopBookResponse;
+import com.ezertech.library.dto.response.TopBorrowerResponse;
+import com.ezertech.library.model.entity.Book;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.BorrowerSummaryRepository;
+import com.ezertech.library.repository.LoanDailyBookStatsRepository;
+import com.ezertech.library.repository.LoanDailyBorrowerStatsRepository;
+import com.ezertech.library.repository.LoanDailyStatsRepository;
+import com.ezertech.library.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rollups written by checkouts and returns, and rebuilt by the backfill, against H2.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reports;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("h2")
+class ReportServiceTest {
+
+    @Autowired
+    private ITReportService reportService;
+
+    @Autowired
+    private ITLoanService loanService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private BorrowerSummaryRepository borrowerSummaryRepository;
+
+    @Autowired
+    private LoanDailyStatsRepository dailyStats;
+
+    @Autowired
+    private LoanDailyBookStatsRepository bookStats;
+
+    @Autowired
+    private LoanDailyBorrowerStatsRepository borrowerStats;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAllInBatch();
+        borrowerSummaryRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        clearRollups();
+    }
+
+    @Test
+    void testCheckoutsAndReturnsUpdateRollups() {
+        List<Book> books = createBooks(2);
+        LoanResponse first = lend(books.get(0), "ana@test.com");
+        loanService.returnBook(first.id());
+        lend(books.get(0), "ana@test.com");
+        lend(books.get(1), "luis@test.com");
+
+        assertReports(books);
+    }
+
+    @Test
+    void testBackfillRebuildsTheSameRollups() {
+        List<Book> books = createBooks(2);
+        LoanResponse first = lend(books.get(0), "ana@test.com");
+        loanService.returnBook(first.id());
+        lend(books.get(0), "ana@test.com");
+        lend(books.get(1), "luis@test.com");
+
+        clearRollups();
+        reportService.backfill(null, today);
+        assertReports(books);
+
+        // Repetir el backfill sustituye las filas en lugar de sumarlas
+        reportService.backfill(null, today);
+        assertReports(books);
+    }
+
+    private void assertReports(List<Book> books) {
+        List<LoanActivityResponse> days = reportService.dailyActivity(today.minusDays(2), today);
+        assertEquals(3, days.size());
+        assertEquals(new LoanActivityResponse(today.minusDays(1), 0, 0), days.get(1));
+        assertEquals(new LoanActivityResponse(today, 3, 1), days.get(2));
+
+        List<LoanActivityResponse> months = reportService.monthlyActivity(today, today);
+        assertEquals(List.of(new LoanActivityResponse(today.withDayOfMonth(1), 3, 1)), months);
+
+        List<TopBookResponse> topBooks = reportService.topBooks(today, today, 10);
+        assertEquals(List.of(
+                new TopBookResponse(books.get(0).getId(), "Report 0", 2L),
+                new TopBookResponse(books.get(1).getId(), "Report 1", 1L)), topBooks);
+
+        List<TopBorrowerResponse> topBorrowers = reportService.topBorrowers(today, today, 1);
+        assertEquals(List.of(new TopBorrowerResponse("ana@test.com", 2L)), topBorrowers);
+    }
+
+    private void clearRollups() {
+        dailyStats.deleteAllInBatch();
+        bookStats.deleteAllInBatch();
+        borrowerStats.deleteAllInBatch();
+    }
+
+    private LoanResponse lend(Book book, String email) {
+        return loanService.create(new LoanRequest(book.getId(), "Reader", email, today));
+    }
+
+    private List<Book> createBooks(int count) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            books.add(bookRepository.save(Book.builder()
+                    .title("Report " + i)
+                    .author("Author")
+                    .isbn(String.format("976%010d", i))
+                    .publicationYear(2000)
+                    .status(BookStatus.AVAILABLE)
+                    .createdAt(LocalDateTime.now())
+                    .build()));
+        }
+        return books;
+    }
+}
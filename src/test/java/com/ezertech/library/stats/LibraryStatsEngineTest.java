@@ -0,0 +1,111 @@
+package com.ezertech.library.stats;
+
+import com.ezertech.library.dto.response.BookResponse;
+import com.ezertech.library.dto.response.LoanResponse;
+import com.ezertech.library.event.BookChangedEvent;
+import com.ezertech.library.event.LoanChangedEvent;
+import com.ezertech.library.index.OverdueLoanIndex;
+import com.ezertech.library.model.enums.BookStatus;
+import com.ezertech.library.repository.BookRepository;
+import com.ezertech.library.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LibraryStatsEngineTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private OverdueLoanIndex overdueLoanIndex;
+
+    @InjectMocks
+    private LibraryStatsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.count()).thenReturn(10L);
+        when(bookRepository.countByStatus(BookStatus.AVAILABLE)).thenReturn(7L);
+        when(bookRepository.countByStatus(BookStatus.BORROWED)).thenReturn(3L);
+        when(loanRepository.countByReturnDateIsNull()).thenReturn(3L);
+        engine.reconcile();
+    }
+
+    @Test
+    void testSnapshotDoesNotQueryAgain() {
+        when(overdueLoanIndex.overdueCount()).thenReturn(OptionalLong.of(1));
+
+        Map<String, Object> stats = engine.snapshot();
+        engine.snapshot();
+
+        assertEquals(10L, stats.get("totalBooks"));
+        assertEquals(1L, stats.get("overdueLoans"));
+        verify(bookRepository, times(1)).count();
+        verify(loanRepository, never()).countOverdueLoans(any());
+    }
+
+    @Test
+    void testOverdueFallsBackToDatabaseWhileIndexLoads() {
+        when(overdueLoanIndex.overdueCount()).thenReturn(OptionalLong.empty());
+        when(loanRepository.countOverdueLoans(any(LocalDate.class))).thenReturn(2L);
+
+        assertEquals(2L, engine.snapshot().get("overdueLoans"));
+    }
+
+    @Test
+    void testCheckoutAndReturnMoveCounters() {
+        BookResponse available = book(BookStatus.AVAILABLE);
+        BookResponse borrowed = book(BookStatus.BORROWED);
+        LoanResponse open = loan(LocalDate.now().minusDays(20), null);
+        LoanResponse returned = loan(LocalDate.now().minusDays(20), LocalDate.now());
+
+        engine.onBookChanged(new BookChangedEvent(available, borrowed));
+        engine.onLoanChanged(new LoanChangedEvent(null, open));
+
+        assertEquals(6L, engine.snapshot().get("availableBooks"));
+        assertEquals(4L, engine.snapshot().get("borrowedBooks"));
+        assertEquals(4L, engine.snapshot().get("activeLoans"));
+
+        engine.onBookChanged(new BookChangedEvent(borrowed, available));
+        engine.onLoanChanged(new LoanChangedEvent(open, returned));
+
+        assertEquals(7L, engine.snapshot().get("availableBooks"));
+        assertEquals(3L, engine.snapshot().get("activeLoans"));
+        assertEquals(10L, engine.snapshot().get("totalBooks"));
+    }
+
+    @Test
+    void testCreateAndDeleteMoveTotals() {
+        engine.onBookChanged(new BookChangedEvent(null, book(BookStatus.AVAILABLE)));
+        assertEquals(11L, engine.snapshot().get("totalBooks"));
+
+        engine.onBookChanged(new BookChangedEvent(book(BookStatus.BORROWED), null));
+        assertEquals(10L, engine.snapshot().get("totalBooks"));
+        assertEquals(2L, engine.snapshot().get("borrowedBooks"));
+    }
+
+    private static BookResponse book(BookStatus status) {
+        return new BookResponse(1L, "Clean Code", "Robert C. Martin", "9780132350884", 2008, status, null, 0L);
+    }
+
+    private static LoanResponse loan(LocalDate loanDate, LocalDate returnDate) {
+        return new LoanResponse(5L, 1L, "Clean Code", "Andrés", "andres@test.com",
+                loanDate, loanDate.plusDays(14), returnDate);
+    }
+}